@@ -0,0 +1,29 @@
+package com.expensesplitter.controller;
+
+import com.expensesplitter.dto.DashboardDTO;
+import com.expensesplitter.model.User;
+import com.expensesplitter.service.DashboardService;
+import com.expensesplitter.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+    private final UserService userService;
+
+    /**
+     * Groups, per-group balances, recent expenses and totals in one response; {@code recent} caps the
+     * expenses per group (default 5, at most 20), {@code currency} is what the totals are converted into.
+     */
+    @GetMapping
+    public ResponseEntity<DashboardDTO> getDashboard(@RequestParam(required = false) String currency,
+                                                     @RequestParam(required = false) Integer recent) {
+        User currentUser = userService.getCurrentUser();
+        return ResponseEntity.ok(dashboardService.getDashboard(currentUser, currency, recent));
+    }
+}
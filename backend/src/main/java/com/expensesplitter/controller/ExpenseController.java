@@ -1,42 +1,162 @@
 package com.expensesplitter.controller;
 
+import com.expensesplitter.dto.BulkPaySplitsRequest;
+import com.expensesplitter.dto.BulkPaySplitsResultDTO;
 import com.expensesplitter.dto.CreateExpenseRequest;
+import com.expensesplitter.dto.CreateItemizedExpenseRequest;
 import com.expensesplitter.dto.ExpenseDTO;
+import com.expensesplitter.dto.ExpenseImportResultDTO;
+import com.expensesplitter.dto.ExpensePageDTO;
 import com.expensesplitter.dto.ExpenseSplitDTO;
 import com.expensesplitter.model.User;
+import com.expensesplitter.service.ExpenseExportService;
+import com.expensesplitter.service.ExpenseFileFormat;
+import com.expensesplitter.service.ExpenseImportService;
 import com.expensesplitter.service.ExpenseService;
+import com.expensesplitter.service.IdempotencyStore;
 import com.expensesplitter.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
 public class ExpenseController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final ExpenseService expenseService;
+    private final ExpenseImportService expenseImportService;
+    private final ExpenseExportService expenseExportService;
+    private final IdempotencyStore idempotencyStore;
     private final UserService userService;
 
+    /**
+     * With an Idempotency-Key header, a retry of the same request returns the original expense
+     * (marked with Idempotent-Replayed: true) instead of creating another one.
+     */
     @PostMapping("/groups/{groupId}/expenses")
     public ResponseEntity<ExpenseDTO> createExpense(
             @PathVariable Long groupId,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             @Valid @RequestBody CreateExpenseRequest request) {
         request.setGroupId(groupId); // Ensure groupId matches path variable
         User currentUser = userService.getCurrentUser();
-        ExpenseDTO expense = expenseService.createExpense(request, currentUser);
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            ExpenseDTO expense = expenseService.createExpense(request, currentUser);
+            return ResponseEntity.ok(expense);
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+
+        IdempotencyStore.Result<ExpenseDTO> result = idempotencyStore.execute(
+                "expenses:" + currentUser.getId(), idempotencyKey, request, ExpenseDTO.class,
+                () -> expenseService.createExpense(request, currentUser));
+        return ResponseEntity.ok()
+                .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                .body(result.value());
+    }
+
+    @PostMapping("/groups/{groupId}/expenses/itemized")
+    public ResponseEntity<ExpenseDTO> createItemizedExpense(
+            @PathVariable Long groupId,
+            @Valid @RequestBody CreateItemizedExpenseRequest request) {
+        request.setGroupId(groupId);
+        User currentUser = userService.getCurrentUser();
+        ExpenseDTO expense = expenseService.createItemizedExpense(request, currentUser);
         return ResponseEntity.ok(expense);
     }
 
+    /**
+     * Bulk import; the body is read as a stream, never buffered whole.
+     * Responds 200 with a per-row error report even when some rows were rejected.
+     */
+    @PostMapping(value = "/groups/{groupId}/expenses/import",
+            consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ExpenseImportResultDTO> importExpenses(
+            @PathVariable Long groupId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        User currentUser = userService.getCurrentUser();
+        ExpenseImportResultDTO result = expenseImportService.importExpenses(
+                groupId, body, ExpenseFileFormat.fromMediaType(contentType), currentUser);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/groups/{groupId}/expenses")
     public ResponseEntity<List<ExpenseDTO>> getExpensesByGroup(@PathVariable Long groupId) {
         List<ExpenseDTO> expenses = expenseService.getExpensesByGroup(groupId);
         return ResponseEntity.ok(expenses);
     }
 
+    /**
+     * Cursor-paginated listing, newest first. Pass the returned nextCursor to fetch the following page.
+     */
+    @GetMapping("/groups/{groupId}/expenses/page")
+    public ResponseEntity<ExpensePageDTO> getExpensePage(
+            @PathVariable Long groupId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since) {
+        User currentUser = userService.getCurrentUser();
+        ExpensePageDTO page = expenseService.getExpensePage(groupId, currentUser, cursor, size, since);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Prefix search over descriptions ("rent mar" matches "Rent March"), best matches first.
+     */
+    @GetMapping("/groups/{groupId}/expenses/search")
+    public ResponseEntity<List<ExpenseDTO>> searchExpenses(
+            @PathVariable Long groupId,
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        User currentUser = userService.getCurrentUser();
+        List<ExpenseDTO> expenses = expenseService.searchExpenses(groupId, currentUser, q, limit);
+        return ResponseEntity.ok(expenses);
+    }
+
+    /**
+     * Full history as NDJSON (one expense per line) or CSV (one row per split), streamed from the
+     * database. Gzip-compressed when the client sends Accept-Encoding: gzip.
+     */
+    @GetMapping("/groups/{groupId}/expenses/export")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(
+            @PathVariable Long groupId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExpenseFileFormat exportFormat = ExpenseFileFormat.fromParam(format);
+        User currentUser = userService.getCurrentUser();
+        expenseExportService.checkAccess(groupId, currentUser);
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        StreamingResponseBody body = out -> expenseExportService.export(groupId, exportFormat, gzip, out);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"group-" + groupId + "-expenses." + exportFormat.paramValue() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @GetMapping("/expenses/{id}")
     public ResponseEntity<ExpenseDTO> getExpenseById(@PathVariable Long id) {
         ExpenseDTO expense = expenseService.getExpenseById(id);
@@ -51,5 +171,11 @@ public class ExpenseController {
         ExpenseSplitDTO split = expenseService.markSplitAsPaid(splitId, currentUser);
         return ResponseEntity.ok(split);
     }
-}
 
+    @PatchMapping("/splits/pay")
+    public ResponseEntity<BulkPaySplitsResultDTO> markSplitsAsPaid(@Valid @RequestBody BulkPaySplitsRequest request) {
+        User currentUser = userService.getCurrentUser();
+        BulkPaySplitsResultDTO result = expenseService.markSplitsAsPaid(request, currentUser);
+        return ResponseEntity.ok(result);
+    }
+}
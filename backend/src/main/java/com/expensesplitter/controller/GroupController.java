@@ -1,14 +1,22 @@
 package com.expensesplitter.controller;
 
+import com.expensesplitter.dto.BulkMembersRequest;
+import com.expensesplitter.dto.BulkMembersResultDTO;
 import com.expensesplitter.dto.CreateGroupRequest;
 import com.expensesplitter.dto.GroupDTO;
+import com.expensesplitter.dto.GroupPurgeDTO;
+import com.expensesplitter.dto.GroupStatsDTO;
 import com.expensesplitter.model.User;
 import com.expensesplitter.service.GroupService;
+import com.expensesplitter.service.SpendingRollupService;
 import com.expensesplitter.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -20,6 +28,7 @@ public class GroupController {
 
     private final GroupService groupService;
     private final UserService userService;
+    private final SpendingRollupService spendingRollupService;
 
     @PostMapping
     public ResponseEntity<GroupDTO> createGroup(@Valid @RequestBody CreateGroupRequest request) {
@@ -50,6 +59,26 @@ public class GroupController {
         return ResponseEntity.ok(group);
     }
 
+    /**
+     * Adds users by id and/or email in one call; the response lists added, skipped (already members)
+     * and unknown users.
+     */
+    @PostMapping("/{id}/members/bulk")
+    public ResponseEntity<BulkMembersResultDTO> addMembers(
+            @PathVariable Long id,
+            @Valid @RequestBody BulkMembersRequest request) {
+        User currentUser = userService.getCurrentUser();
+        return ResponseEntity.ok(groupService.addMembers(id, request, currentUser));
+    }
+
+    @PostMapping("/{id}/members/bulk-remove")
+    public ResponseEntity<BulkMembersResultDTO> removeMembers(
+            @PathVariable Long id,
+            @Valid @RequestBody BulkMembersRequest request) {
+        User currentUser = userService.getCurrentUser();
+        return ResponseEntity.ok(groupService.removeMembers(id, request, currentUser));
+    }
+
     @DeleteMapping("/{id}/members/{userId}")
     public ResponseEntity<GroupDTO> removeMember(
             @PathVariable Long id,
@@ -59,10 +88,28 @@ public class GroupController {
         return ResponseEntity.ok(group);
     }
 
+    /**
+     * Spending per month and per member from the rollups; defaults to the last 12 months.
+     */
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<GroupStatsDTO> getGroupStats(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        User currentUser = userService.getCurrentUser();
+        return ResponseEntity.ok(spendingRollupService.getGroupStats(id, currentUser, from, to));
+    }
+
+    // 202: the group is gone for every reader, its rows are removed in the background
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteGroup(@PathVariable Long id) {
-        // You will need to add this method to your Service first!
-        groupService.deleteGroup(id); 
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<GroupPurgeDTO> deleteGroup(@PathVariable Long id) {
+        User currentUser = userService.getCurrentUser();
+        return ResponseEntity.accepted().body(groupService.deleteGroup(id, currentUser));
+    }
+
+    @GetMapping("/{id}/deletion")
+    public ResponseEntity<GroupPurgeDTO> getDeletion(@PathVariable Long id) {
+        User currentUser = userService.getCurrentUser();
+        return ResponseEntity.ok(groupService.getDeletion(id, currentUser));
     }
 }
\ No newline at end of file
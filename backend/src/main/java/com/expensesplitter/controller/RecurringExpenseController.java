@@ -0,0 +1,44 @@
+package com.expensesplitter.controller;
+
+import com.expensesplitter.dto.CreateRecurringExpenseRequest;
+import com.expensesplitter.dto.RecurringExpenseDTO;
+import com.expensesplitter.model.User;
+import com.expensesplitter.service.RecurringExpenseService;
+import com.expensesplitter.service.UserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/groups")
+@RequiredArgsConstructor
+public class RecurringExpenseController {
+
+    private final RecurringExpenseService recurringExpenseService;
+    private final UserService userService;
+
+    @PostMapping("/{groupId}/recurring-expenses")
+    public ResponseEntity<RecurringExpenseDTO> createRecurringExpense(
+            @PathVariable Long groupId,
+            @Valid @RequestBody CreateRecurringExpenseRequest request) {
+        request.setGroupId(groupId);
+        User currentUser = userService.getCurrentUser();
+        return ResponseEntity.ok(recurringExpenseService.create(request, currentUser));
+    }
+
+    @GetMapping("/{groupId}/recurring-expenses")
+    public ResponseEntity<List<RecurringExpenseDTO>> getRecurringExpenses(@PathVariable Long groupId) {
+        User currentUser = userService.getCurrentUser();
+        return ResponseEntity.ok(recurringExpenseService.getByGroup(groupId, currentUser));
+    }
+
+    @DeleteMapping("/{groupId}/recurring-expenses/{id}")
+    public ResponseEntity<Void> deleteRecurringExpense(@PathVariable Long groupId, @PathVariable Long id) {
+        User currentUser = userService.getCurrentUser();
+        recurringExpenseService.delete(groupId, id, currentUser);
+        return ResponseEntity.noContent().build();
+    }
+}
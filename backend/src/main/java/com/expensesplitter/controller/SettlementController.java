@@ -1,15 +1,15 @@
 package com.expensesplitter.controller;
 
 import com.expensesplitter.dto.SettlementDTO;
+import com.expensesplitter.dto.SettlementPlanDTO;
+import com.expensesplitter.dto.SettlementRecordDTO;
 import com.expensesplitter.model.User;
 import com.expensesplitter.service.SettlementService;
+import com.expensesplitter.service.SettlementStrategy;
 import com.expensesplitter.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
@@ -22,9 +22,43 @@ public class SettlementController {
     private final UserService userService;
 
     @GetMapping("/{groupId}/settlements")
-    public ResponseEntity<List<SettlementDTO>> getSettlements(@PathVariable Long groupId) {
+    public ResponseEntity<List<SettlementDTO>> getSettlements(
+            @PathVariable Long groupId,
+            @RequestParam(defaultValue = "greedy") String strategy,
+            @RequestParam(defaultValue = "50") long budgetMs) {
         User currentUser = userService.getCurrentUser();
-        return ResponseEntity.ok(settlementService.calculateSettlements(groupId, currentUser));
+        SettlementPlanDTO plan = settlementService.calculateSettlementPlan(
+                groupId, currentUser, SettlementStrategy.fromParam(strategy), budgetMs);
+        // Body stays a plain list for existing clients; plan metadata travels in headers
+        return ResponseEntity.ok()
+                .header("X-Settlement-Strategy", plan.getStrategy())
+                .header("X-Settlement-Transfers-Saved", Integer.toString(plan.getTransfersSaved()))
+                .header("X-Settlement-Search-Complete", Boolean.toString(plan.isSearchComplete()))
+                .body(plan.getSettlements());
+    }
+
+    @PostMapping("/{groupId}/settlements")
+    public ResponseEntity<List<SettlementRecordDTO>> recordSettlementPlan(
+            @PathVariable Long groupId,
+            @RequestParam(defaultValue = "greedy") String strategy,
+            @RequestParam(defaultValue = "50") long budgetMs) {
+        User currentUser = userService.getCurrentUser();
+        return ResponseEntity.ok(settlementService.recordSettlementPlan(
+                groupId, currentUser, SettlementStrategy.fromParam(strategy), budgetMs));
+    }
+
+    @GetMapping("/{groupId}/settlements/recorded")
+    public ResponseEntity<List<SettlementRecordDTO>> getRecordedSettlements(@PathVariable Long groupId) {
+        User currentUser = userService.getCurrentUser();
+        return ResponseEntity.ok(settlementService.getRecordedSettlements(groupId, currentUser));
+    }
+
+    @PatchMapping("/{groupId}/settlements/{settlementId}/complete")
+    public ResponseEntity<SettlementRecordDTO> completeSettlement(
+            @PathVariable Long groupId,
+            @PathVariable Long settlementId) {
+        User currentUser = userService.getCurrentUser();
+        return ResponseEntity.ok(settlementService.completeSettlement(groupId, settlementId, currentUser));
     }
 }
 
@@ -1,17 +1,26 @@
 package com.expensesplitter.controller;
 
+import com.expensesplitter.dto.UserBalancesDTO;
+import com.expensesplitter.dto.UserStatsDTO;
 import com.expensesplitter.model.User;
+import com.expensesplitter.service.BalanceService;
+import com.expensesplitter.service.SpendingRollupService;
 import com.expensesplitter.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.YearMonth;
+
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
 public class UserController {
 
     private final UserService userService;
+    private final BalanceService balanceService;
+    private final SpendingRollupService spendingRollupService;
 
     @GetMapping("/me")
     public ResponseEntity<User> getCurrentUser() {
@@ -19,6 +28,24 @@ public class UserController {
         return ResponseEntity.ok(user);
     }
 
+    /**
+     * Net position across all groups, converted into {@code currency} (defaults to app.fx.defaultCurrency).
+     */
+    @GetMapping("/me/balances")
+    public ResponseEntity<UserBalancesDTO> getCurrentUserBalances(@RequestParam(required = false) String currency) {
+        User user = userService.getCurrentUser();
+        return ResponseEntity.ok(balanceService.getUserBalances(user, currency));
+    }
+
+    @GetMapping("/me/stats")
+    public ResponseEntity<UserStatsDTO> getCurrentUserStats(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            @RequestParam(required = false) String currency) {
+        User user = userService.getCurrentUser();
+        return ResponseEntity.ok(spendingRollupService.getUserStats(user, from, to, currency));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<User> getUserById(@PathVariable Long id) {
         User user = userService.getUserById(id);
@@ -0,0 +1,19 @@
+package com.expensesplitter.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkMembersRequest {
+    @Size(max = 5000, message = "At most 5000 user ids per request")
+    private List<Long> userIds;
+
+    @Size(max = 5000, message = "At most 5000 emails per request")
+    private List<String> emails;
+}
@@ -0,0 +1,18 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkMembersResultDTO {
+    private List<Long> added;          // empty for removals
+    private List<Long> removed;        // empty for additions
+    private List<Long> skipped;        // already a member (add), not a member or the creator (remove)
+    private List<Long> unknownIds;
+    private List<String> unknownEmails;
+}
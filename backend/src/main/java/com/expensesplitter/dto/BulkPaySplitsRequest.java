@@ -0,0 +1,18 @@
+package com.expensesplitter.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPaySplitsRequest {
+    @Size(max = 1000, message = "At most 1000 split ids per request")
+    private List<Long> splitIds; // optional when groupId is given
+
+    private Long groupId; // all of the caller's unpaid splits in this group, or narrows splitIds to it
+}
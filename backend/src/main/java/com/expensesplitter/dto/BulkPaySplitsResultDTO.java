@@ -0,0 +1,15 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPaySplitsResultDTO {
+    private int updated;
+    private List<GroupNetBalanceDTO> balances; // caller's net balance in each affected group
+}
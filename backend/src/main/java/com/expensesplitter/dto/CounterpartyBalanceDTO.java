@@ -0,0 +1,18 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CounterpartyBalanceDTO {
+    private Long userId;
+    private String userName;
+    private BigDecimal net; // > 0: they owe you, < 0: you owe them
+    private List<GroupNetBalanceDTO> groups;
+}
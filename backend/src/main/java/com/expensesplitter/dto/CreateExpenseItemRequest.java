@@ -0,0 +1,24 @@
+package com.expensesplitter.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateExpenseItemRequest {
+    @NotBlank(message = "Item description is required")
+    private String description;
+
+    @NotNull(message = "Item amount is required")
+    @Positive(message = "Item amount must be positive")
+    private BigDecimal amount;
+
+    private Long assignedToId; // null = shared by all participants
+}
@@ -26,4 +26,10 @@ public class CreateExpenseRequest {
 
     @NotNull(message = "Splits are required")
     private Map<Long, BigDecimal> splits; // userId -> amount
+
+    private String currency; // ISO 4217, defaults to the group's base currency
+
+    public CreateExpenseRequest(String description, BigDecimal amount, Long groupId, Map<Long, BigDecimal> splits) {
+        this(description, amount, groupId, splits, null);
+    }
 }
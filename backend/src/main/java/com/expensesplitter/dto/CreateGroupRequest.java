@@ -11,4 +11,10 @@ import lombok.NoArgsConstructor;
 public class CreateGroupRequest {
     @NotBlank(message = "Group name is required")
     private String name;
+
+    private String baseCurrency; // ISO 4217, defaults to app.fx.defaultCurrency
+
+    public CreateGroupRequest(String name) {
+        this(name, null);
+    }
 }
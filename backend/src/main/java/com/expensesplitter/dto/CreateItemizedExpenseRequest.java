@@ -0,0 +1,40 @@
+package com.expensesplitter.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateItemizedExpenseRequest {
+    @NotBlank(message = "Description is required")
+    private String description;
+
+    private Long groupId; // taken from the path
+
+    @NotEmpty(message = "Items are required")
+    private List<@Valid CreateExpenseItemRequest> items;
+
+    @PositiveOrZero(message = "Tax cannot be negative")
+    private BigDecimal tax;
+
+    @PositiveOrZero(message = "Tip cannot be negative")
+    private BigDecimal tip;
+
+    private List<Long> participants; // who shares the shared items; defaults to every group member
+
+    private String currency; // ISO 4217, defaults to the group's base currency
+
+    public CreateItemizedExpenseRequest(String description, Long groupId, List<CreateExpenseItemRequest> items,
+                                        BigDecimal tax, BigDecimal tip, List<Long> participants) {
+        this(description, groupId, items, tax, tip, participants, null);
+    }
+}
@@ -0,0 +1,35 @@
+package com.expensesplitter.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateRecurringExpenseRequest {
+    @NotBlank(message = "Description is required")
+    private String description;
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be positive")
+    private BigDecimal amount;
+
+    private Long groupId;
+
+    @NotNull(message = "Splits are required")
+    private Map<Long, BigDecimal> splits; // userId -> amount
+
+    private String currency; // ISO 4217, defaults to the group's base currency
+
+    @NotBlank(message = "Schedule is required")
+    private String schedule; // cron, e.g. "0 9 1 * *" for 09:00 on the first of every month
+
+    private String timeZone; // IANA zone the schedule is read in, defaults to UTC
+}
@@ -0,0 +1,20 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardDTO {
+    private Long userId;
+    private String currency; // the totals below are in this currency
+    private BigDecimal totalOwedToYou;
+    private BigDecimal totalYouOwe;
+    private BigDecimal net;
+    private List<DashboardGroupDTO> groups;
+}
@@ -0,0 +1,17 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardGroupDTO {
+    private GroupDTO group;
+    private BigDecimal balance; // the user's net in the group's base currency, > 0 means they are owed
+    private List<ExpenseDTO> recentExpenses; // newest first
+}
@@ -1,11 +1,13 @@
 package com.expensesplitter.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
@@ -15,10 +17,22 @@ public class ExpenseDTO {
     private Long id;
     private String description;
     private BigDecimal amount;
+    private String currency;
+    private BigDecimal baseAmount; // in the group's base currency
     private Long groupId;
     private Long paidById;
     private String paidByName;
     private Instant createdAt;
     private List<ExpenseSplitDTO> splits;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ExpenseItemDTO> items; // only filled on single-expense responses
+
+    // Used by JPQL constructor projections; splits are attached afterwards
+    public ExpenseDTO(Long id, String description, BigDecimal amount, String currency, BigDecimal baseAmount,
+                      Long groupId, Long paidById, String paidByName, Instant createdAt) {
+        this(id, description, amount, currency, baseAmount, groupId, paidById, paidByName, createdAt,
+                new ArrayList<>(), null);
+    }
 }
 
@@ -0,0 +1,17 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseImportResultDTO {
+    private long imported;
+    private long failed;
+    private List<ImportRowErrorDTO> errors;
+    private boolean errorsTruncated; // more rows failed than are listed in errors
+}
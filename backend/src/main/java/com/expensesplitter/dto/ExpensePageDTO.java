@@ -0,0 +1,15 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpensePageDTO {
+    private List<ExpenseDTO> items;
+    private String nextCursor; // null on the last page
+}
@@ -0,0 +1,26 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Flat split row from a projection query, keyed by its expense so rows can be grouped without entities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseSplitRowDTO {
+    private Long expenseId;
+    private Long id;
+    private Long userId;
+    private String userName;
+    private BigDecimal amount;
+    private boolean isPaid;
+
+    public ExpenseSplitDTO toSplitDTO() {
+        return new ExpenseSplitDTO(id, userId, userName, amount, isPaid);
+    }
+}
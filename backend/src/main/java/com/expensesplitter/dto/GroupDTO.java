@@ -14,6 +14,7 @@ public class GroupDTO {
     private Long id;
     private String name;
     private String description;
+    private String baseCurrency;
     private Long createdById;
     private String createdByName;
     private Set<Long> memberIds;
@@ -0,0 +1,24 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One user's spending in one group and month, in the group's base currency.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupMonthSpendingDTO {
+    private Long groupId;
+    private String groupName;
+    private String currency;
+    private LocalDate month;
+    private BigDecimal paid;
+    private BigDecimal share;
+    private Long expenseCount;
+}
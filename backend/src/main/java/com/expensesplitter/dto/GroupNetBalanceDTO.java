@@ -0,0 +1,16 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupNetBalanceDTO {
+    private Long groupId;
+    private String groupName;
+    private BigDecimal net;
+}
@@ -0,0 +1,20 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupPurgeDTO {
+    private Long groupId;
+    private String phase;
+    private long deletedRows;
+    private boolean completed;
+    private Instant requestedAt;
+    private Instant updatedAt;
+    private Instant completedAt;
+}
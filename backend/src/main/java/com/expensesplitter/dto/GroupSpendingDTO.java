@@ -0,0 +1,17 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupSpendingDTO {
+    private Long groupId;
+    private String groupName;
+    private BigDecimal paid;
+    private BigDecimal share;
+}
@@ -0,0 +1,23 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupStatsDTO {
+    private Long groupId;
+    private YearMonth from;
+    private YearMonth to;
+    private String currency; // the group's base currency
+    private BigDecimal totalSpent;
+    private long expenseCount;
+    private List<MonthlySpendingDTO> months; // only months with spending
+    private List<MemberSpendingDTO> members; // paid per payer, share per member
+}
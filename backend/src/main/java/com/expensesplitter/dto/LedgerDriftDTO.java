@@ -0,0 +1,17 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerDriftDTO {
+    private Long groupId;
+    private Long userId;
+    private BigDecimal recordedBalance;
+    private BigDecimal expectedBalance;
+}
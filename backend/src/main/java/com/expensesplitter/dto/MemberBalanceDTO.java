@@ -0,0 +1,16 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberBalanceDTO {
+    private Long userId;
+    private String userName;
+    private BigDecimal balance;
+}
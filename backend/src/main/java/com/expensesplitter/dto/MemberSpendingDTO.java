@@ -0,0 +1,18 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberSpendingDTO {
+    private Long userId;
+    private String userName;
+    private BigDecimal paid;
+    private BigDecimal share;
+    private Long expenseCount;
+}
@@ -0,0 +1,18 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlySpendingDTO {
+    private LocalDate month;
+    private BigDecimal paid;
+    private BigDecimal share;
+    private Long expenseCount;
+}
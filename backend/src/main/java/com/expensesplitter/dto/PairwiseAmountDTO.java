@@ -0,0 +1,24 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregated amount flowing from one user to another within a group.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PairwiseAmountDTO {
+    private Long groupId;
+    private String groupName;
+    private Long fromUserId;
+    private String fromUserName;
+    private Long toUserId;
+    private String toUserName;
+    private BigDecimal amount;
+    private String currency; // the group's base currency
+}
@@ -0,0 +1,29 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringExpenseDTO {
+    private Long id;
+    private Long groupId;
+    private Long paidById;
+    private String description;
+    private BigDecimal amount;
+    private String currency;
+    private Map<Long, BigDecimal> splits;
+    private String schedule;
+    private String timeZone;
+    private Instant nextRunAt;
+    private Instant lastRunAt;
+    private boolean active;
+    private String lastError;
+    private Instant createdAt;
+}
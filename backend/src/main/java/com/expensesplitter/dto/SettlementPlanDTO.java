@@ -0,0 +1,17 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementPlanDTO {
+    private String strategy;
+    private int transfersSaved;
+    private boolean searchComplete; // false when the optimal search hit its time budget
+    private List<SettlementDTO> settlements;
+}
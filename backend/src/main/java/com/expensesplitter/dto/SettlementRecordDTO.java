@@ -0,0 +1,24 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementRecordDTO {
+    private Long id;
+    private Long groupId;
+    private Long fromUserId;
+    private String fromUserName;
+    private Long toUserId;
+    private String toUserName;
+    private BigDecimal amount;
+    private String status;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
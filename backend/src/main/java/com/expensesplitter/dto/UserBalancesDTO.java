@@ -0,0 +1,21 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBalancesDTO {
+    private Long userId;
+    private String currency; // every amount below is in this currency
+    private BigDecimal totalOwedToYou;
+    private BigDecimal totalYouOwe;
+    private BigDecimal net;
+    private List<CounterpartyBalanceDTO> counterparties;
+    private List<GroupNetBalanceDTO> groups;
+}
@@ -0,0 +1,23 @@
+package com.expensesplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStatsDTO {
+    private Long userId;
+    private YearMonth from;
+    private YearMonth to;
+    private String currency; // every amount below is converted into this currency
+    private BigDecimal totalPaid;
+    private BigDecimal totalShare;
+    private List<MonthlySpendingDTO> months;
+    private List<GroupSpendingDTO> groups;
+}
@@ -3,6 +3,7 @@ package com.expensesplitter.model;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -10,13 +11,20 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses", indexes = {
+        @Index(name = "idx_expenses_paid_by", columnList = "paid_by_id"),
+        @Index(name = "idx_expenses_group_created", columnList = "group_id, created_at, id")
+}, uniqueConstraints = {
+        // One expense per template occurrence, whatever the scheduler retries
+        @UniqueConstraint(name = "uk_expenses_recurring_occurrence", columnNames = {"recurring_expense_id", "created_at"})
+})
 @Data
 @NoArgsConstructor
 public class Expense {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expenses_seq")
+    @SequenceGenerator(name = "expenses_seq", sequenceName = "expenses_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -25,6 +33,17 @@ public class Expense {
     @Column(nullable = false)
     private BigDecimal amount;
 
+    @ColumnDefault("'USD'")
+    @Column(nullable = false, length = 3)
+    private String currency = "USD";
+
+    // Set only when currency differs from the group's base currency, at the rate used then
+    @Column(name = "base_amount")
+    private BigDecimal baseAmount;
+
+    @Column(name = "fx_rate", precision = 24, scale = 10)
+    private BigDecimal fxRate;
+
     @ManyToOne
     @JoinColumn(name = "group_id")
     private Group group;
@@ -33,13 +52,20 @@ public class Expense {
     @JoinColumn(name = "paid_by_id")
     private User paidBy;
 
+    @Column(name = "created_at")
     private Instant createdAt;
 
+    // Template this expense was generated from; no foreign key, generated expenses outlive it
+    @Column(name = "recurring_expense_id")
+    private Long recurringExpenseId;
+
     @OneToMany(mappedBy = "expense", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ExpenseItem> items = new ArrayList<>();
 
     @OneToMany(mappedBy = "expense", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ExpenseSplit> splits = new ArrayList<>();
-}
-
 
+    public BigDecimal amountInBaseCurrency() {
+        return baseAmount != null ? baseAmount : amount;
+    }
+}
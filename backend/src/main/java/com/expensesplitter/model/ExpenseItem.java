@@ -13,7 +13,8 @@ import java.math.BigDecimal;
 public class ExpenseItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_items_seq")
+    @SequenceGenerator(name = "expense_items_seq", sequenceName = "expense_items_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -7,20 +7,26 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "expense_splits")
+@Table(name = "expense_splits", indexes = {
+        @Index(name = "idx_expense_splits_expense", columnList = "expense_id"),
+        @Index(name = "idx_expense_splits_user", columnList = "user_id")
+})
 @Data
 @NoArgsConstructor
 public class ExpenseSplit {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_splits_seq")
+    @SequenceGenerator(name = "expense_splits_seq", sequenceName = "expense_splits_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -32,8 +38,15 @@ public class ExpenseSplit {
     private User user;
 
     @Column(nullable = false)
-    private BigDecimal amount;
+    private BigDecimal amount; // in the expense's currency
+
+    @Column(name = "base_amount")
+    private BigDecimal baseAmount; // in the group's base currency; null when they are the same
 
     @Column(nullable = false)
     private boolean isPaid = false;
+
+    public BigDecimal amountInBaseCurrency() {
+        return baseAmount != null ? baseAmount : amount;
+    }
 }
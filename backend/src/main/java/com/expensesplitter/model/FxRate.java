@@ -0,0 +1,27 @@
+package com.expensesplitter.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Units of a currency per one unit of the reference currency all rates are quoted against
+ * (the reference currency itself has rate 1). Cross rates are derived from two rows.
+ */
+@Entity
+@Table(name = "fx_rates")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FxRate {
+
+    @Id
+    @Column(length = 3)
+    private String currency;
+
+    @Column(nullable = false, precision = 24, scale = 10)
+    private BigDecimal rate;
+}
@@ -3,15 +3,20 @@ package com.expensesplitter.model;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "groups")
+// A deleted group stays until GroupPurgeJob has removed its rows; no entity query ever sees it
+@SQLRestriction("deleted_at is null")
 @Data
 @NoArgsConstructor
 public class Group {
@@ -25,6 +30,11 @@ public class Group {
 
     private String description;
 
+    // Expenses in other currencies are converted into this one for balances and settlements
+    @ColumnDefault("'USD'")
+    @Column(name = "base_currency", nullable = false, length = 3)
+    private String baseCurrency = "USD";
+
     @ManyToOne
     @JoinColumn(name = "created_by_id")
     private User createdBy;
@@ -33,7 +43,9 @@ public class Group {
     @JoinTable(
             name = "group_members",
             joinColumns = @JoinColumn(name = "group_id"),
-            inverseJoinColumns = @JoinColumn(name = "user_id")
+            inverseJoinColumns = @JoinColumn(name = "user_id"),
+            // The primary key (group_id, user_id) serves lookups by group; this one serves "groups of a user"
+            indexes = @Index(name = "idx_group_members_user", columnList = "user_id")
     )
     private Set<User> members = new HashSet<>();
 
@@ -44,6 +56,9 @@ public class Group {
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
+
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
 }
 
 
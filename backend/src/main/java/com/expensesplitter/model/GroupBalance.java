@@ -0,0 +1,45 @@
+package com.expensesplitter.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Materialized net balance of one member within one group.
+ * balance > 0 means the user should receive money, < 0 means the user owes money.
+ * Maintained incrementally by {@code BalanceService}; can always be rebuilt from the splits.
+ */
+@Entity
+@Table(name = "group_balances",
+        uniqueConstraints = @UniqueConstraint(name = "uk_group_balances_group_user", columnNames = {"group_id", "user_id"}))
+@Data
+@NoArgsConstructor
+public class GroupBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "group_balances_seq")
+    @SequenceGenerator(name = "group_balances_seq", sequenceName = "group_balances_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public GroupBalance(Long groupId, Long userId) {
+        this.groupId = groupId;
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,53 @@
+package com.expensesplitter.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Progress of removing a deleted group's rows. Written with the deletion itself and advanced by
+ * {@code GroupPurgeJob} once per committed chunk, so a restarted node resumes at the current phase.
+ */
+@Entity
+@Table(name = "group_purges", indexes = @Index(name = "idx_group_purges_pending", columnList = "completed_at, requested_at"))
+@Data
+@NoArgsConstructor
+public class GroupPurge {
+
+    @Id
+    @Column(name = "group_id")
+    private Long groupId; // no foreign key: the progress row outlives its group
+
+    @Column(name = "requested_by_id", nullable = false)
+    private Long requestedById;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Phase phase = Phase.EXPENSE_SPLITS;
+
+    @Column(name = "deleted_rows", nullable = false)
+    private long deletedRows;
+
+    @Column(name = "requested_at", nullable = false)
+    private Instant requestedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    /** Tables are emptied in this order, children before the rows they reference. */
+    public enum Phase {
+        EXPENSE_SPLITS,
+        EXPENSE_ITEMS,
+        EXPENSES,
+        SETTLEMENTS,
+        BALANCES,
+        ROLLUPS,
+        MEMBERS,
+        GROUP
+    }
+}
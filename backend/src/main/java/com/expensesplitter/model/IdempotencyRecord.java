@@ -0,0 +1,34 @@
+package com.expensesplitter.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A claimed idempotency key and the response it produced. The row is inserted and completed in the
+ * same transaction as the work it guards, so a committed row always carries its response.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires", columnList = "expires_at"))
+@Data
+@NoArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "id", length = 400)
+    private String id; // scope + ":" + key
+
+    @Column(nullable = false)
+    private String fingerprint;
+
+    @Column(columnDefinition = "text")
+    private String response;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
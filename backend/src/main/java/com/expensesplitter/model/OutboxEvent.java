@@ -0,0 +1,56 @@
+package com.expensesplitter.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A domain change recorded in the same transaction as the change itself and published to in-process
+ * subscribers afterwards by {@code OutboxDispatcher}.
+ * <p>
+ * Ids come from an unpooled sequence taken while the group row is locked, so within one group
+ * id order is commit order.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = @Index(name = "idx_outbox_events_pending", columnList = "published_at, id"))
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "group_id", nullable = false)
+    private Long groupId; // no foreign key: GROUP_DELETED outlives its group
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 40)
+    private Type type;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "published_at")
+    private Instant publishedAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    public enum Type {
+        EXPENSES_CREATED,
+        SPLITS_PAID,
+        MEMBER_ADDED,
+        MEMBER_REMOVED,
+        GROUP_DELETED
+    }
+}
@@ -0,0 +1,28 @@
+package com.expensesplitter.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Which node may currently deliver outbox events to side-effect listeners. Held by renewing
+ * {@code expires_at}; another node takes over once it lapses.
+ */
+@Entity
+@Table(name = "outbox_leases")
+@Data
+@NoArgsConstructor
+public class OutboxLease {
+
+    @Id
+    @Column(length = 40)
+    private String name;
+
+    @Column(nullable = false, length = 64)
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,77 @@
+package com.expensesplitter.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A template the scheduler turns into an ordinary expense at every occurrence of its cron schedule.
+ * {@code nextRunAt} is advanced in the same transaction that inserts the generated expenses.
+ */
+@Entity
+@Table(name = "recurring_expenses", indexes = {
+        @Index(name = "idx_recurring_expenses_due", columnList = "active, next_run_at"),
+        @Index(name = "idx_recurring_expenses_group", columnList = "group_id")
+})
+@Data
+@NoArgsConstructor
+public class RecurringExpense {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recurring_expenses_seq")
+    @SequenceGenerator(name = "recurring_expenses_seq", sequenceName = "recurring_expenses_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    private Group group;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "paid_by_id", nullable = false)
+    private User paidBy;
+
+    @Column(nullable = false)
+    private String description;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @ElementCollection
+    @CollectionTable(name = "recurring_expense_splits",
+            joinColumns = @JoinColumn(name = "recurring_expense_id"))
+    @MapKeyColumn(name = "user_id")
+    @Column(name = "amount", nullable = false)
+    @BatchSize(size = 100)
+    private Map<Long, BigDecimal> splits = new HashMap<>(); // userId -> amount
+
+    @Column(nullable = false, length = 100)
+    private String schedule; // Spring cron expression, seconds field optional
+
+    @Column(name = "time_zone", nullable = false, length = 64)
+    private String timeZone;
+
+    @Column(name = "next_run_at", nullable = false)
+    private Instant nextRunAt;
+
+    @Column(name = "last_run_at")
+    private Instant lastRunAt;
+
+    @Column(nullable = false)
+    private boolean active = true;
+
+    // Why the scheduler paused this template, e.g. a split user left the group
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
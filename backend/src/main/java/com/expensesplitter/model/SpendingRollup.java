@@ -0,0 +1,51 @@
+package com.expensesplitter.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Spending of one member in one group for one calendar month (UTC).
+ * paid is what the user paid for the group; share is what the user's splits came to.
+ * Maintained incrementally by {@code SpendingRollupService}; can always be rebuilt from the expenses.
+ */
+@Entity
+@Table(name = "spending_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_spending_rollups_group_user_month", columnNames = {"group_id", "user_id", "period_month"}),
+        indexes = @Index(name = "idx_spending_rollups_user_month", columnList = "user_id, period_month"))
+@Data
+@NoArgsConstructor
+public class SpendingRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "spending_rollups_seq")
+    @SequenceGenerator(name = "spending_rollups_seq", sequenceName = "spending_rollups_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "period_month", nullable = false)
+    private LocalDate month; // first day of the month
+
+    @Column(nullable = false)
+    private BigDecimal paid = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private BigDecimal share = BigDecimal.ZERO;
+
+    @Column(name = "expense_count", nullable = false)
+    private long expenseCount; // expenses this user paid
+
+    public SpendingRollup(Long groupId, Long userId, LocalDate month) {
+        this.groupId = groupId;
+        this.userId = userId;
+        this.month = month;
+    }
+}
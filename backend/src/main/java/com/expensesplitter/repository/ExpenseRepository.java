@@ -1,16 +1,52 @@
 package com.expensesplitter.repository;
 
+import com.expensesplitter.dto.ExpenseDTO;
 import com.expensesplitter.model.Expense;
 import com.expensesplitter.model.Group;
 import com.expensesplitter.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     List<Expense> findByGroup(Group group);
     List<Expense> findByPaidBy(User user);
+
+    @Query("select new com.expensesplitter.dto.ExpenseDTO(e.id, e.description, e.amount, e.currency, " +
+            "coalesce(e.baseAmount, e.amount), e.group.id, p.id, p.name, e.createdAt) " +
+            "from Expense e join e.paidBy p where e.group.id = :groupId order by e.id")
+    List<ExpenseDTO> findDTOsByGroupId(@Param("groupId") Long groupId);
+
+    @Query("select new com.expensesplitter.dto.ExpenseDTO(e.id, e.description, e.amount, e.currency, " +
+            "coalesce(e.baseAmount, e.amount), e.group.id, p.id, p.name, e.createdAt) " +
+            "from Expense e join e.paidBy p where e.id in :ids")
+    List<ExpenseDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Ids of each group's newest expenses, at most :limit per group, grouped by group and newest first,
+    // ranked in one pass over idx_expenses_group_created
+    @Query(value = "select id from (select e.id, e.group_id, row_number() over (partition by e.group_id " +
+            "order by e.created_at desc, e.id desc) as rn from expenses e where e.group_id in (:groupIds)) r " +
+            "where rn <= :limit order by group_id, rn", nativeQuery = true)
+    List<Long> findRecentIds(@Param("groupIds") Collection<Long> groupIds, @Param("limit") int limit);
+
+    // Keyset pages, newest first, served from idx_expenses_group_created; pass the page size via Pageable
+    @Query("select e from Expense e join fetch e.paidBy " +
+            "where e.group.id = :groupId and e.createdAt >= :since " +
+            "order by e.createdAt desc, e.id desc")
+    List<Expense> findFirstPage(@Param("groupId") Long groupId, @Param("since") Instant since, Pageable page);
+
+    @Query("select e from Expense e join fetch e.paidBy " +
+            "where e.group.id = :groupId and e.createdAt >= :since " +
+            "and e.createdAt <= :createdAt and (e.createdAt < :createdAt or e.id < :id) " +
+            "order by e.createdAt desc, e.id desc")
+    List<Expense> findPageBefore(@Param("groupId") Long groupId, @Param("since") Instant since,
+                                 @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable page);
 }
 
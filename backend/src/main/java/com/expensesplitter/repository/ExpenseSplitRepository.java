@@ -1,11 +1,18 @@
 package com.expensesplitter.repository;
 
+import com.expensesplitter.dto.ExpenseSplitRowDTO;
+import com.expensesplitter.dto.PairwiseAmountDTO;
+import com.expensesplitter.dto.UserAmountDTO;
 import com.expensesplitter.model.Expense;
 import com.expensesplitter.model.ExpenseSplit;
 import com.expensesplitter.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,5 +20,55 @@ public interface ExpenseSplitRepository extends JpaRepository<ExpenseSplit, Long
     List<ExpenseSplit> findByExpense(Expense expense);
     List<ExpenseSplit> findByUser(User user);
     List<ExpenseSplit> findByUserAndIsPaidFalse(User user);
-}
 
+    @Query("select s from ExpenseSplit s join fetch s.user where s.expense.id in :expenseIds order by s.id")
+    List<ExpenseSplit> findWithUserByExpenseIdIn(@Param("expenseIds") Collection<Long> expenseIds);
+
+    @Query("select new com.expensesplitter.dto.ExpenseSplitRowDTO(e.id, s.id, u.id, u.name, s.amount, s.isPaid) " +
+            "from ExpenseSplit s join s.expense e join s.user u where e.group.id = :groupId order by s.id")
+    List<ExpenseSplitRowDTO> findRowsByGroupId(@Param("groupId") Long groupId);
+
+    @Query("select new com.expensesplitter.dto.ExpenseSplitRowDTO(e.id, s.id, u.id, u.name, s.amount, s.isPaid) " +
+            "from ExpenseSplit s join s.expense e join s.user u where e.id in :expenseIds order by s.id")
+    List<ExpenseSplitRowDTO> findRowsByExpenseIdIn(@Param("expenseIds") Collection<Long> expenseIds);
+
+    // Conditional flip so two concurrent requests can never both observe the unpaid -> paid transition
+    @Modifying
+    @Query("update ExpenseSplit s set s.isPaid = true where s.id = :id and s.isPaid = false")
+    int markPaidIfUnpaid(@Param("id") Long id);
+
+    // Candidates for a bulk payment, with what the ledger update needs fetched in the same query
+    @Query("select s from ExpenseSplit s join fetch s.expense e join fetch e.group join fetch e.paidBy " +
+            "where s.user.id = :userId and s.isPaid = false and s.id in :ids")
+    List<ExpenseSplit> findUnpaidByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    @Query("select s from ExpenseSplit s join fetch s.expense e join fetch e.group join fetch e.paidBy " +
+            "where s.user.id = :userId and s.isPaid = false and e.group.id = :groupId")
+    List<ExpenseSplit> findUnpaidByUserIdAndGroupId(@Param("userId") Long userId, @Param("groupId") Long groupId);
+
+    @Modifying
+    @Query("update ExpenseSplit s set s.isPaid = true where s.user.id = :userId and s.isPaid = false and s.id in :ids")
+    int markPaidIfUnpaid(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // Everything still owed to or by one user, across all groups, netted per (group, debtor, creditor)
+    @Query("select new com.expensesplitter.dto.PairwiseAmountDTO(g.id, g.name, u.id, u.name, p.id, p.name, " +
+            "sum(coalesce(s.baseAmount, s.amount)), g.baseCurrency) " +
+            "from ExpenseSplit s join s.expense e join e.group g join e.paidBy p join s.user u " +
+            "where s.isPaid = false and s.amount > 0 and p.id <> u.id and (u.id = :userId or p.id = :userId) " +
+            "group by g.id, g.name, g.baseCurrency, u.id, u.name, p.id, p.name")
+    List<PairwiseAmountDTO> sumUnpaidDebtsInvolvingUser(@Param("userId") Long userId);
+
+    // What each payer is still owed in a group (unpaid splits of other users)
+    @Query("select new com.expensesplitter.dto.UserAmountDTO(e.paidBy.id, sum(coalesce(s.baseAmount, s.amount))) " +
+            "from ExpenseSplit s join s.expense e " +
+            "where e.group.id = :groupId and s.isPaid = false and s.amount > 0 and s.user.id <> e.paidBy.id " +
+            "group by e.paidBy.id")
+    List<UserAmountDTO> sumUnpaidCreditsByPayer(@Param("groupId") Long groupId);
+
+    // What each user still owes in a group (their unpaid splits on expenses paid by someone else)
+    @Query("select new com.expensesplitter.dto.UserAmountDTO(s.user.id, sum(coalesce(s.baseAmount, s.amount))) " +
+            "from ExpenseSplit s join s.expense e " +
+            "where e.group.id = :groupId and s.isPaid = false and s.amount > 0 and s.user.id <> e.paidBy.id " +
+            "group by s.user.id")
+    List<UserAmountDTO> sumUnpaidDebitsByUser(@Param("groupId") Long groupId);
+}
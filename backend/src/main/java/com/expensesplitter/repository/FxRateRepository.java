@@ -0,0 +1,9 @@
+package com.expensesplitter.repository;
+
+import com.expensesplitter.model.FxRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FxRateRepository extends JpaRepository<FxRate, String> {
+}
@@ -0,0 +1,37 @@
+package com.expensesplitter.repository;
+
+import com.expensesplitter.dto.GroupNetBalanceDTO;
+import com.expensesplitter.dto.MemberBalanceDTO;
+import com.expensesplitter.model.GroupBalance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface GroupBalanceRepository extends JpaRepository<GroupBalance, Long> {
+
+    // Rows are locked in user id order so concurrent writers never deadlock on each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from GroupBalance b where b.groupId = :groupId and b.userId in :userIds order by b.userId")
+    List<GroupBalance> findForUpdate(@Param("groupId") Long groupId, @Param("userIds") Collection<Long> userIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from GroupBalance b where b.groupId = :groupId order by b.userId")
+    List<GroupBalance> findAllForUpdate(@Param("groupId") Long groupId);
+
+    @Query("select new com.expensesplitter.dto.MemberBalanceDTO(u.id, u.name, b.balance) " +
+            "from GroupBalance b join User u on u.id = b.userId " +
+            "where b.groupId = :groupId")
+    List<MemberBalanceDTO> findMemberBalances(@Param("groupId") Long groupId);
+
+    @Query("select new com.expensesplitter.dto.GroupNetBalanceDTO(g.id, g.name, b.balance) " +
+            "from GroupBalance b join Group g on g.id = b.groupId " +
+            "where b.userId = :userId and b.groupId in :groupIds order by g.id")
+    List<GroupNetBalanceDTO> findUserBalances(@Param("userId") Long userId, @Param("groupIds") Collection<Long> groupIds);
+}
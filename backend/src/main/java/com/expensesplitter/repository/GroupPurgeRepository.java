@@ -0,0 +1,17 @@
+package com.expensesplitter.repository;
+
+import com.expensesplitter.model.GroupPurge;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface GroupPurgeRepository extends JpaRepository<GroupPurge, Long> {
+
+    // Oldest unfinished purge; one another node is working on is skipped, not waited for
+    @Query(value = "select * from group_purges where completed_at is null " +
+            "order by requested_at, group_id limit 1 for update skip locked", nativeQuery = true)
+    Optional<GroupPurge> claimNext();
+}
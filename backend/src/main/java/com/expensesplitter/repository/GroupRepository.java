@@ -1,15 +1,39 @@
 package com.expensesplitter.repository;
 
 import com.expensesplitter.model.Group;
-import com.expensesplitter.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface GroupRepository extends JpaRepository<Group, Long> {
-    List<Group> findByCreatedBy(User user);
-    List<Group> findByMembersContaining(User user);
+
+    @Query("select distinct g from Group g left join fetch g.members where g.id in :ids")
+    List<Group> findAllWithMembersById(@Param("ids") Collection<Long> ids);
+
+    @Query("select g.id from Group g order by g.id")
+    List<Long> findAllIds();
+
+    @Modifying
+    @Query("update Group g set g.updatedAt = :now where g.id = :id")
+    int touch(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Row lock only; serializes a group's outbox writes without loading the entity.
+    // Empty once the group is deleted, so a writer queued behind the deletion fails instead of writing into it
+    @Query(value = "select id from groups where id = :id and deleted_at is null for update", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+
+    // Native: entity statements never see a deleted group, and this one must not see it twice
+    @Modifying
+    @Query(value = "update groups set deleted_at = :now where id = :id and deleted_at is null", nativeQuery = true)
+    int markDeleted(@Param("id") Long id, @Param("now") Instant now);
 }
 
@@ -0,0 +1,33 @@
+package com.expensesplitter.repository;
+
+import com.expensesplitter.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Plain insert so a concurrent claim of the same key blocks on, then fails against, the primary key
+    @Modifying
+    @Query(value = "insert into idempotency_keys (id, fingerprint, created_at, expires_at) " +
+            "values (:id, :fingerprint, :createdAt, :expiresAt)", nativeQuery = true)
+    int claim(@Param("id") String id, @Param("fingerprint") String fingerprint,
+              @Param("createdAt") Instant createdAt, @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query("update IdempotencyRecord r set r.response = :response where r.id = :id")
+    int complete(@Param("id") String id, @Param("response") String response);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.expiresAt < :now")
+    int deleteIfExpired(@Param("id") String id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,42 @@
+package com.expensesplitter.repository;
+
+import com.expensesplitter.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("select e from OutboxEvent e where e.publishedAt is null and e.attempts < :maxAttempts order by e.id")
+    List<OutboxEvent> findPending(@Param("maxAttempts") int maxAttempts, Pageable limit);
+
+    // Every event after a node's broadcast cursor, published or not
+    @Query("select e from OutboxEvent e where e.id > :after order by e.id")
+    List<OutboxEvent> findAfter(@Param("after") long after, Pageable limit);
+
+    @Query("select coalesce(max(e.id), 0) from OutboxEvent e where e.createdAt < :before")
+    long maxIdCreatedBefore(@Param("before") Instant before);
+
+    @Query("select count(e) from OutboxEvent e where e.publishedAt is null and e.attempts < :maxAttempts")
+    long countPending(@Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.publishedAt = :now where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = e.attempts + 1, e.lastError = :error where e.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("error") String error);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") Instant before);
+}
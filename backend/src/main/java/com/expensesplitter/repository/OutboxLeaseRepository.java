@@ -0,0 +1,21 @@
+package com.expensesplitter.repository;
+
+import com.expensesplitter.model.OutboxLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface OutboxLeaseRepository extends JpaRepository<OutboxLease, String> {
+
+    // Renews the lease for its owner or takes over a lapsed one; 0 while another node holds it
+    @Modifying
+    @Query("update OutboxLease l set l.owner = :owner, l.expiresAt = :until " +
+            "where l.name = :name and (l.owner = :owner or l.expiresAt < :now)")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("now") Instant now, @Param("until") Instant until);
+}
@@ -0,0 +1,35 @@
+package com.expensesplitter.repository;
+
+import com.expensesplitter.model.RecurringExpense;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RecurringExpenseRepository extends JpaRepository<RecurringExpense, Long> {
+
+    @Query("select r from RecurringExpense r where r.group.id = :groupId order by r.id")
+    List<RecurringExpense> findByGroupId(@Param("groupId") Long groupId);
+
+    // Templates another node is already generating are skipped, not waited for
+    @Query(value = "select * from recurring_expenses where active = true and next_run_at <= :now " +
+            "order by next_run_at, id limit :limit for update skip locked", nativeQuery = true)
+    List<RecurringExpense> claimDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Query(value = "select * from recurring_expenses where id = :id and active = true and next_run_at <= :now " +
+            "for update skip locked", nativeQuery = true)
+    List<RecurringExpense> claimDueById(@Param("id") Long id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update RecurringExpense r set r.active = false, r.lastError = :error where r.id = :id")
+    int pause(@Param("id") Long id, @Param("error") String error);
+
+    @Modifying
+    @Query("delete from RecurringExpense r where r.group.id = :groupId")
+    int deleteByGroupId(@Param("groupId") Long groupId);
+}
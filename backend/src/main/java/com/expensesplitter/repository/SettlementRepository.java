@@ -1,15 +1,55 @@
 package com.expensesplitter.repository;
 
+import com.expensesplitter.dto.PairwiseAmountDTO;
+import com.expensesplitter.dto.UserAmountDTO;
 import com.expensesplitter.model.Group;
 import com.expensesplitter.model.Settlement;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface SettlementRepository extends JpaRepository<Settlement, Long> {
     List<Settlement> findByGroup(Group group);
-}
 
+    @Query("select s from Settlement s join fetch s.fromUser join fetch s.toUser " +
+            "where s.group.id = :groupId order by s.id")
+    List<Settlement> findWithUsersByGroupId(@Param("groupId") Long groupId);
+
+    @Modifying
+    @Query("delete from Settlement s where s.group.id = :groupId and s.status = com.expensesplitter.model.Settlement.Status.PENDING")
+    int deletePendingByGroupId(@Param("groupId") Long groupId);
+
+    // Conditional flip so a settlement can only be applied to the ledger once
+    @Modifying
+    @Query("update Settlement s set s.status = com.expensesplitter.model.Settlement.Status.COMPLETED, " +
+            "s.completedAt = :completedAt " +
+            "where s.id = :id and s.status = com.expensesplitter.model.Settlement.Status.PENDING")
+    int markCompletedIfPending(@Param("id") Long id, @Param("completedAt") LocalDateTime completedAt);
 
+    // Completed transfers to or from one user, across all groups
+    @Query("select new com.expensesplitter.dto.PairwiseAmountDTO(g.id, g.name, f.id, f.name, t.id, t.name, " +
+            "sum(s.amount), g.baseCurrency) " +
+            "from Settlement s join s.group g join s.fromUser f join s.toUser t " +
+            "where s.status = com.expensesplitter.model.Settlement.Status.COMPLETED " +
+            "and (f.id = :userId or t.id = :userId) " +
+            "group by g.id, g.name, g.baseCurrency, f.id, f.name, t.id, t.name")
+    List<PairwiseAmountDTO> sumCompletedInvolvingUser(@Param("userId") Long userId);
+
+    // Money already handed over through completed settlements, per payer
+    @Query("select new com.expensesplitter.dto.UserAmountDTO(s.fromUser.id, sum(s.amount)) from Settlement s " +
+            "where s.group.id = :groupId and s.status = com.expensesplitter.model.Settlement.Status.COMPLETED " +
+            "group by s.fromUser.id")
+    List<UserAmountDTO> sumCompletedPaidByUser(@Param("groupId") Long groupId);
+
+    // Money already received through completed settlements, per receiver
+    @Query("select new com.expensesplitter.dto.UserAmountDTO(s.toUser.id, sum(s.amount)) from Settlement s " +
+            "where s.group.id = :groupId and s.status = com.expensesplitter.model.Settlement.Status.COMPLETED " +
+            "group by s.toUser.id")
+    List<UserAmountDTO> sumCompletedReceivedByUser(@Param("groupId") Long groupId);
+}
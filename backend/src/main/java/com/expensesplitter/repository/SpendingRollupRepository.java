@@ -0,0 +1,53 @@
+package com.expensesplitter.repository;
+
+import com.expensesplitter.dto.GroupMonthSpendingDTO;
+import com.expensesplitter.dto.MemberSpendingDTO;
+import com.expensesplitter.dto.MonthlySpendingDTO;
+import com.expensesplitter.model.SpendingRollup;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SpendingRollupRepository extends JpaRepository<SpendingRollup, Long> {
+
+    // Rows are locked in (month, user) order so concurrent writers never deadlock on each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from SpendingRollup r where r.groupId = :groupId and r.month in :months and r.userId in :userIds " +
+            "order by r.month, r.userId")
+    List<SpendingRollup> findForUpdate(@Param("groupId") Long groupId, @Param("months") Collection<LocalDate> months,
+                                       @Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("delete from SpendingRollup r where r.groupId = :groupId")
+    int deleteByGroupId(@Param("groupId") Long groupId);
+
+    @Query("select new com.expensesplitter.dto.MonthlySpendingDTO(r.month, sum(r.paid), sum(r.share), sum(r.expenseCount)) " +
+            "from SpendingRollup r where r.groupId = :groupId and r.month between :from and :to " +
+            "group by r.month order by r.month")
+    List<MonthlySpendingDTO> sumGroupByMonth(@Param("groupId") Long groupId,
+                                             @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select new com.expensesplitter.dto.MemberSpendingDTO(u.id, u.name, sum(r.paid), sum(r.share), sum(r.expenseCount)) " +
+            "from SpendingRollup r join User u on u.id = r.userId " +
+            "where r.groupId = :groupId and r.month between :from and :to " +
+            "group by u.id, u.name order by u.id")
+    List<MemberSpendingDTO> sumGroupByMember(@Param("groupId") Long groupId,
+                                             @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // One row per (group, month): a user's rollup rows as they are, with the group's currency attached
+    @Query("select new com.expensesplitter.dto.GroupMonthSpendingDTO(g.id, g.name, g.baseCurrency, r.month, " +
+            "r.paid, r.share, r.expenseCount) " +
+            "from SpendingRollup r join Group g on g.id = r.groupId " +
+            "where r.userId = :userId and r.month between :from and :to order by r.month, g.id")
+    List<GroupMonthSpendingDTO> findUserRows(@Param("userId") Long userId,
+                                             @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,280 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.CounterpartyBalanceDTO;
+import com.expensesplitter.dto.GroupNetBalanceDTO;
+import com.expensesplitter.dto.LedgerDriftDTO;
+import com.expensesplitter.dto.MemberBalanceDTO;
+import com.expensesplitter.dto.PairwiseAmountDTO;
+import com.expensesplitter.dto.UserAmountDTO;
+import com.expensesplitter.dto.UserBalancesDTO;
+import com.expensesplitter.model.Expense;
+import com.expensesplitter.model.ExpenseSplit;
+import com.expensesplitter.model.GroupBalance;
+import com.expensesplitter.model.Settlement;
+import com.expensesplitter.model.User;
+import com.expensesplitter.repository.ExpenseSplitRepository;
+import com.expensesplitter.repository.GroupBalanceRepository;
+import com.expensesplitter.repository.GroupRepository;
+import com.expensesplitter.repository.SettlementRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Keeps the per-(group, user) balance ledger in step with expense writes.
+ * Writers pass deltas inside their own transaction; reads never touch the expense history.
+ * <p>
+ * Every ledger write, and {@link #reconcile}, takes the group row lock before reading balance rows:
+ * the first write for a new member cannot race another insert of the same row, and a rebuild never
+ * reads splits a concurrent writer is about to apply.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BalanceService {
+
+    private final GroupBalanceRepository groupBalanceRepository;
+    private final GroupRepository groupRepository;
+    private final ExpenseSplitRepository expenseSplitRepository;
+    private final SettlementRepository settlementRepository;
+    private final SettlementCache settlementCache;
+    private final FxRateService fxRateService;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpense(Expense expense) {
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        addExpenseDeltas(expense, deltas);
+        applyDeltas(expense.getGroup().getId(), deltas);
+    }
+
+    /**
+     * Applies a batch of new expenses from one group with a single locked ledger update.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpenses(Long groupId, Collection<Expense> expenses) {
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        for (Expense expense : expenses) {
+            addExpenseDeltas(expense, deltas);
+        }
+        applyDeltas(groupId, deltas);
+    }
+
+    private static void addExpenseDeltas(Expense expense, Map<Long, BigDecimal> deltas) {
+        Long payerId = expense.getPaidBy().getId();
+        for (ExpenseSplit split : expense.getSplits()) {
+            if (!isOutstanding(split, payerId)) continue;
+            BigDecimal amount = split.amountInBaseCurrency();
+            deltas.merge(payerId, amount, BigDecimal::add);
+            deltas.merge(split.getUser().getId(), amount.negate(), BigDecimal::add);
+        }
+    }
+
+    /**
+     * Reverses the effect of a split that just went from unpaid to paid.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSplitPaid(ExpenseSplit split) {
+        recordSplitsPaid(List.of(split));
+    }
+
+    /**
+     * Batch form of {@link #recordSplitPaid}: one ledger update per affected group, taken in group id
+     * order so two bulk payers touching the same groups cannot deadlock.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSplitsPaid(Collection<ExpenseSplit> splits) {
+        Map<Long, Map<Long, BigDecimal>> deltasByGroup = new TreeMap<>();
+        for (ExpenseSplit split : splits) {
+            Expense expense = split.getExpense();
+            Long payerId = expense.getPaidBy().getId();
+            if (split.getUser() == null || payerId.equals(split.getUser().getId())) continue;
+            if (split.getAmount() == null || split.getAmount().signum() <= 0) continue;
+
+            Map<Long, BigDecimal> deltas = deltasByGroup.computeIfAbsent(expense.getGroup().getId(), id -> new HashMap<>());
+            BigDecimal amount = split.amountInBaseCurrency();
+            deltas.merge(payerId, amount.negate(), BigDecimal::add);
+            deltas.merge(split.getUser().getId(), amount, BigDecimal::add);
+        }
+        deltasByGroup.forEach(this::applyDeltas);
+    }
+
+    /**
+     * A completed transfer moves the payer towards zero and the receiver down by the same amount.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSettlementCompleted(Settlement settlement) {
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        deltas.put(settlement.getFromUser().getId(), settlement.getAmount());
+        deltas.put(settlement.getToUser().getId(), settlement.getAmount().negate());
+        applyDeltas(settlement.getGroup().getId(), deltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyDeltas(Long groupId, Map<Long, BigDecimal> deltas) {
+        if (deltas.isEmpty()) return;
+
+        groupRepository.lockById(groupId)
+                .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + groupId));
+        Map<Long, GroupBalance> rows = new HashMap<>();
+        for (GroupBalance row : groupBalanceRepository.findForUpdate(groupId, deltas.keySet())) {
+            rows.put(row.getUserId(), row);
+        }
+
+        List<GroupBalance> created = new ArrayList<>();
+        for (Map.Entry<Long, BigDecimal> delta : deltas.entrySet()) {
+            GroupBalance row = rows.get(delta.getKey());
+            if (row == null) {
+                row = new GroupBalance(groupId, delta.getKey());
+                created.add(row);
+            }
+            row.setBalance(row.getBalance().add(delta.getValue()));
+        }
+        groupBalanceRepository.saveAll(created);
+        settlementCache.invalidate(groupId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MemberBalanceDTO> getBalances(Long groupId) {
+        return groupBalanceRepository.findMemberBalances(groupId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<GroupNetBalanceDTO> getUserGroupBalances(Long userId, Collection<Long> groupIds) {
+        if (groupIds.isEmpty()) return List.of();
+        return groupBalanceRepository.findUserBalances(userId, groupIds);
+    }
+
+    @Transactional(readOnly = true)
+    public UserBalancesDTO getUserBalances(User user) {
+        return getUserBalances(user, null);
+    }
+
+    /**
+     * Nets the user's position against every counterparty across all of their groups, from one
+     * aggregate over unpaid splits and one over completed settlements. Each group's aggregate is
+     * converted from the group's base currency into {@code currency} against one rate snapshot.
+     */
+    @Transactional(readOnly = true)
+    public UserBalancesDTO getUserBalances(User user, String currency) {
+        Long me = user.getId();
+        String target = FxRates.normalize(currency, fxRateService.defaultCurrency());
+        FxRates rates = fxRateService.current();
+        Map<Long, String> userNames = new HashMap<>();
+        Map<Long, String> groupNames = new HashMap<>();
+        // counterparty id -> group id -> net, > 0 means the counterparty owes the user
+        Map<Long, Map<Long, BigDecimal>> positions = new TreeMap<>();
+
+        for (PairwiseAmountDTO debt : expenseSplitRepository.sumUnpaidDebtsInvolvingUser(me)) {
+            accumulate(me, debt, rates.convert(debt.getAmount(), debt.getCurrency(), target),
+                    positions, userNames, groupNames);
+        }
+        // A completed transfer is a debt running the other way
+        for (PairwiseAmountDTO paid : settlementRepository.sumCompletedInvolvingUser(me)) {
+            accumulate(me, paid, rates.convert(paid.getAmount(), paid.getCurrency(), target).negate(),
+                    positions, userNames, groupNames);
+        }
+
+        BigDecimal owedToYou = BigDecimal.ZERO;
+        BigDecimal youOwe = BigDecimal.ZERO;
+        Map<Long, BigDecimal> groupTotals = new TreeMap<>();
+        List<CounterpartyBalanceDTO> counterparties = new ArrayList<>();
+        for (Map.Entry<Long, Map<Long, BigDecimal>> position : positions.entrySet()) {
+            BigDecimal net = BigDecimal.ZERO;
+            List<GroupNetBalanceDTO> perGroup = new ArrayList<>();
+            for (Map.Entry<Long, BigDecimal> group : position.getValue().entrySet()) {
+                if (group.getValue().signum() == 0) continue;
+                net = net.add(group.getValue());
+                groupTotals.merge(group.getKey(), group.getValue(), BigDecimal::add);
+                perGroup.add(new GroupNetBalanceDTO(group.getKey(), groupNames.get(group.getKey()), group.getValue()));
+            }
+            if (perGroup.isEmpty()) continue;
+
+            if (net.signum() > 0) owedToYou = owedToYou.add(net);
+            if (net.signum() < 0) youOwe = youOwe.add(net.negate());
+            counterparties.add(new CounterpartyBalanceDTO(
+                    position.getKey(), userNames.get(position.getKey()), net, perGroup));
+        }
+
+        List<GroupNetBalanceDTO> groups = groupTotals.entrySet().stream()
+                .map(g -> new GroupNetBalanceDTO(g.getKey(), groupNames.get(g.getKey()), g.getValue()))
+                .toList();
+        return new UserBalancesDTO(me, target, owedToYou, youOwe, owedToYou.subtract(youOwe), counterparties, groups);
+    }
+
+    /**
+     * Rebuilds the ledger of one group from its unpaid splits and completed settlements,
+     * fixing and returning any drift found.
+     */
+    @Transactional
+    public List<LedgerDriftDTO> reconcile(Long groupId) {
+        // Writers apply their deltas under this lock, so the sums below match the rows it protects
+        if (groupRepository.lockById(groupId).isEmpty()) {
+            return List.of();
+        }
+        Map<Long, BigDecimal> expected = new HashMap<>();
+        for (UserAmountDTO credit : expenseSplitRepository.sumUnpaidCreditsByPayer(groupId)) {
+            expected.merge(credit.getUserId(), credit.getAmount(), BigDecimal::add);
+        }
+        for (UserAmountDTO debit : expenseSplitRepository.sumUnpaidDebitsByUser(groupId)) {
+            expected.merge(debit.getUserId(), debit.getAmount().negate(), BigDecimal::add);
+        }
+        for (UserAmountDTO paid : settlementRepository.sumCompletedPaidByUser(groupId)) {
+            expected.merge(paid.getUserId(), paid.getAmount(), BigDecimal::add);
+        }
+        for (UserAmountDTO received : settlementRepository.sumCompletedReceivedByUser(groupId)) {
+            expected.merge(received.getUserId(), received.getAmount().negate(), BigDecimal::add);
+        }
+
+        List<LedgerDriftDTO> drift = new ArrayList<>();
+        for (GroupBalance row : groupBalanceRepository.findAllForUpdate(groupId)) {
+            BigDecimal want = expected.getOrDefault(row.getUserId(), BigDecimal.ZERO);
+            expected.remove(row.getUserId());
+            if (row.getBalance().compareTo(want) != 0) {
+                drift.add(new LedgerDriftDTO(groupId, row.getUserId(), row.getBalance(), want));
+                row.setBalance(want);
+            }
+        }
+
+        List<GroupBalance> created = new ArrayList<>();
+        for (Map.Entry<Long, BigDecimal> missing : expected.entrySet()) {
+            if (missing.getValue().signum() == 0) continue;
+            drift.add(new LedgerDriftDTO(groupId, missing.getKey(), BigDecimal.ZERO, missing.getValue()));
+            GroupBalance row = new GroupBalance(groupId, missing.getKey());
+            row.setBalance(missing.getValue());
+            created.add(row);
+        }
+        groupBalanceRepository.saveAll(created);
+
+        if (!drift.isEmpty()) {
+            settlementCache.invalidate(groupId);
+        }
+        for (LedgerDriftDTO d : drift) {
+            log.warn("Ledger drift in group {} for user {}: recorded {}, expected {}",
+                    d.getGroupId(), d.getUserId(), d.getRecordedBalance(), d.getExpectedBalance());
+        }
+        return drift;
+    }
+
+    // row reads "from owes to"; amount is signed from that perspective
+    private static void accumulate(Long me, PairwiseAmountDTO row, BigDecimal amount,
+                                   Map<Long, Map<Long, BigDecimal>> positions,
+                                   Map<Long, String> userNames, Map<Long, String> groupNames) {
+        boolean owedToMe = me.equals(row.getToUserId());
+        Long counterparty = owedToMe ? row.getFromUserId() : row.getToUserId();
+        userNames.put(counterparty, owedToMe ? row.getFromUserName() : row.getToUserName());
+        groupNames.put(row.getGroupId(), row.getGroupName());
+        positions.computeIfAbsent(counterparty, id -> new TreeMap<>())
+                .merge(row.getGroupId(), owedToMe ? amount : amount.negate(), BigDecimal::add);
+    }
+
+    private static boolean isOutstanding(ExpenseSplit split, Long payerId) {
+        if (split.isPaid() || split.getUser() == null) return false;
+        if (payerId.equals(split.getUser().getId())) return false;
+        return split.getAmount() != null && split.getAmount().signum() > 0;
+    }
+}
@@ -0,0 +1,155 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.DashboardDTO;
+import com.expensesplitter.dto.DashboardGroupDTO;
+import com.expensesplitter.dto.ExpenseDTO;
+import com.expensesplitter.dto.ExpenseSplitRowDTO;
+import com.expensesplitter.dto.GroupDTO;
+import com.expensesplitter.dto.GroupNetBalanceDTO;
+import com.expensesplitter.dto.UserBalancesDTO;
+import com.expensesplitter.model.User;
+import com.expensesplitter.repository.ExpenseRepository;
+import com.expensesplitter.repository.ExpenseSplitRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Everything the dashboard shows in one call: the user's groups, their net balance in each, each
+ * group's newest expenses and the totals across groups.
+ * <p>
+ * Every part is a set-based query over all of the user's groups, so a dashboard costs the same handful
+ * of queries (and connections) however many groups the user is in; each group's newest expense ids are
+ * ranked with {@code row_number()} over {@code idx_expenses_group_created} in one statement.
+ * The totals and the per-group balances run on one executor shared by all requests while the request
+ * thread loads the groups and recent expenses; the executor is bounded to {@code app.dashboard.threads}
+ * threads and {@code app.dashboard.queueSize} waiting tasks, past which the request thread runs its own
+ * tasks. If any part fails, the tasks still running are cancelled.
+ */
+@Service
+public class DashboardService {
+
+    static final int DEFAULT_RECENT = 5;
+    static final int MAX_RECENT = 20;
+
+    private final GroupService groupService;
+    private final BalanceService balanceService;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseSplitRepository expenseSplitRepository;
+    private final ThreadPoolExecutor executor;
+
+    public DashboardService(GroupService groupService,
+                            BalanceService balanceService,
+                            ExpenseRepository expenseRepository,
+                            ExpenseSplitRepository expenseSplitRepository,
+                            @Value("${app.dashboard.threads:8}") int threads,
+                            @Value("${app.dashboard.queueSize:1000}") int queueSize) {
+        this.groupService = groupService;
+        this.balanceService = balanceService;
+        this.expenseRepository = expenseRepository;
+        this.expenseSplitRepository = expenseSplitRepository;
+        int size = Math.max(1, threads);
+        this.executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)), new CustomizableThreadFactory("dashboard-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param currency what the cross-group totals are converted into (defaults to app.fx.defaultCurrency);
+     *                 per-group balances stay in each group's base currency
+     * @param recent   expenses per group, newest first
+     */
+    public DashboardDTO getDashboard(User user, String currency, Integer recent) {
+        int limit = recent == null ? DEFAULT_RECENT : Math.max(0, Math.min(recent, MAX_RECENT));
+        List<Future<?>> tasks = new ArrayList<>(2);
+        try {
+            Future<UserBalancesDTO> totals = submit(tasks, () -> balanceService.getUserBalances(user, currency));
+
+            List<GroupDTO> groups = groupService.getUserGroups(user);
+            List<Long> groupIds = groups.stream().map(GroupDTO::getId).toList();
+            Future<List<GroupNetBalanceDTO>> balances =
+                    submit(tasks, () -> balanceService.getUserGroupBalances(user.getId(), groupIds));
+            List<Long> expenseIds = limit > 0 && !groupIds.isEmpty()
+                    ? expenseRepository.findRecentIds(groupIds, limit)
+                    : List.of();
+
+            Map<Long, List<ExpenseDTO>> expensesByGroup = loadExpenses(expenseIds);
+            Map<Long, BigDecimal> balanceByGroup = join(balances).stream()
+                    .collect(Collectors.toMap(GroupNetBalanceDTO::getGroupId, GroupNetBalanceDTO::getNet));
+            return toDashboard(user, groups, balanceByGroup, expensesByGroup, join(totals));
+        } catch (RuntimeException e) {
+            tasks.forEach(task -> task.cancel(true));
+            throw e;
+        }
+    }
+
+    private static DashboardDTO toDashboard(User user, List<GroupDTO> groups, Map<Long, BigDecimal> balanceByGroup,
+                                            Map<Long, List<ExpenseDTO>> expensesByGroup, UserBalancesDTO total) {
+        List<DashboardGroupDTO> items = new ArrayList<>(groups.size());
+        for (GroupDTO group : groups) {
+            items.add(new DashboardGroupDTO(group, balanceByGroup.getOrDefault(group.getId(), BigDecimal.ZERO),
+                    expensesByGroup.getOrDefault(group.getId(), List.of())));
+        }
+        return new DashboardDTO(user.getId(), total.getCurrency(), total.getTotalOwedToYou(), total.getTotalYouOwe(),
+                total.getNet(), items);
+    }
+
+    // Two queries for every group's recent expenses and their splits, kept in the order the ids were picked
+    private Map<Long, List<ExpenseDTO>> loadExpenses(List<Long> expenseIds) {
+        if (expenseIds.isEmpty()) return Map.of();
+        Map<Long, ExpenseDTO> byId = expenseRepository.findDTOsByIdIn(expenseIds).stream()
+                .collect(Collectors.toMap(ExpenseDTO::getId, Function.identity()));
+        for (ExpenseSplitRowDTO row : expenseSplitRepository.findRowsByExpenseIdIn(expenseIds)) {
+            ExpenseDTO expense = byId.get(row.getExpenseId());
+            if (expense != null) {
+                expense.getSplits().add(row.toSplitDTO());
+            }
+        }
+        Map<Long, List<ExpenseDTO>> byGroup = new HashMap<>();
+        for (Long id : expenseIds) {
+            ExpenseDTO expense = byId.get(id);
+            if (expense == null) continue; // deleted since its id was picked
+            byGroup.computeIfAbsent(expense.getGroupId(), groupId -> new ArrayList<>()).add(expense);
+        }
+        return byGroup;
+    }
+
+    private <T> Future<T> submit(List<Future<?>> tasks, Callable<T> task) {
+        Future<T> future = executor.submit(task);
+        tasks.add(future);
+        return future;
+    }
+
+    private static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException("Dashboard query failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Dashboard query interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.model.OutboxEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+
+/**
+ * An outbox event as delivered by {@link OutboxDispatcher} to {@code @EventListener} subscribers: on one
+ * node of the cluster, at least once and in order within a group, so subscribers should tolerate seeing
+ * the same {@code id} twice. Per-node state listens to {@link DomainEventBroadcast} instead.
+ */
+public record DomainEvent(Long id, Long groupId, OutboxEvent.Type type, JsonNode payload, Instant occurredAt) {
+
+    static DomainEvent of(OutboxEvent event, ObjectMapper objectMapper) {
+        try {
+            return new DomainEvent(event.getId(), event.getGroupId(), event.getType(),
+                    objectMapper.readTree(event.getPayload()), event.getCreatedAt());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox payload", e);
+        }
+    }
+}
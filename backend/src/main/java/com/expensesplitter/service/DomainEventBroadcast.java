@@ -0,0 +1,10 @@
+package com.expensesplitter.service;
+
+/**
+ * An outbox event as seen by every node, delivered by {@link OutboxBroadcaster} for node-local caches to
+ * invalidate on. Best effort: a listener that throws is not retried, and an event committed more than
+ * {@code app.outbox.gapTimeout} after its id was allocated is skipped, so caches must still bound how
+ * stale their entries can get.
+ */
+public record DomainEventBroadcast(DomainEvent event) {
+}
@@ -0,0 +1,79 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.ExpenseDTO;
+import com.expensesplitter.dto.ExpenseItemDTO;
+import com.expensesplitter.dto.ExpenseSplitDTO;
+import com.expensesplitter.dto.GroupDTO;
+import com.expensesplitter.model.Expense;
+import com.expensesplitter.model.ExpenseSplit;
+import com.expensesplitter.model.Group;
+import com.expensesplitter.model.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Maps loaded entities to the DTOs the API returns. Touches only the associations it maps, so callers
+ * decide what gets fetched.
+ */
+public final class DtoMapper {
+
+    private DtoMapper() {
+    }
+
+    /** The expense with its splits and items. */
+    public static ExpenseDTO toDTO(Expense expense) {
+        ExpenseDTO dto = toDTO(expense, expense.getSplits());
+        dto.setItems(expense.getItems().stream()
+                .map(item -> new ExpenseItemDTO(item.getId(), item.getDescription(), item.getAmount(),
+                        item.getAssignedTo() == null ? null : item.getAssignedTo().getId(),
+                        item.getAssignedTo() == null ? null : item.getAssignedTo().getName()))
+                .collect(Collectors.toList()));
+        return dto;
+    }
+
+    /** The expense with the given splits and without items, for lists that load splits separately. */
+    public static ExpenseDTO toDTO(Expense expense, List<ExpenseSplit> splits) {
+        ExpenseDTO dto = new ExpenseDTO();
+        dto.setId(expense.getId());
+        dto.setDescription(expense.getDescription());
+        dto.setAmount(expense.getAmount());
+        dto.setCurrency(expense.getCurrency());
+        dto.setBaseAmount(expense.amountInBaseCurrency());
+        dto.setGroupId(expense.getGroup().getId());
+        dto.setPaidById(expense.getPaidBy().getId());
+        dto.setPaidByName(expense.getPaidBy().getName());
+        dto.setCreatedAt(expense.getCreatedAt());
+
+        List<ExpenseSplitDTO> splitDTOs = splits.stream()
+                .map(split -> {
+                    ExpenseSplitDTO splitDTO = new ExpenseSplitDTO();
+                    splitDTO.setId(split.getId());
+                    splitDTO.setUserId(split.getUser().getId());
+                    splitDTO.setUserName(split.getUser().getName());
+                    splitDTO.setAmount(split.getAmount());
+                    splitDTO.setPaid(split.isPaid());
+                    return splitDTO;
+                })
+                .collect(Collectors.toList());
+        dto.setSplits(splitDTOs);
+
+        return dto;
+    }
+
+    public static GroupDTO toDTO(Group group) {
+        GroupDTO dto = new GroupDTO();
+        dto.setId(group.getId());
+        dto.setName(group.getName());
+        dto.setDescription(group.getDescription());
+        dto.setBaseCurrency(group.getBaseCurrency());
+        dto.setCreatedById(group.getCreatedBy().getId());
+        dto.setCreatedByName(group.getCreatedBy().getName());
+        dto.setMemberIds(group.getMembers().stream()
+                .map(User::getId)
+                .collect(Collectors.toSet()));
+        dto.setCreatedAt(group.getCreatedAt());
+        dto.setUpdatedAt(group.getUpdatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,256 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.model.User;
+import com.expensesplitter.repository.GroupRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a group's full expense history from a forward-only JDBC cursor straight to the response.
+ * Only the current row (and, for NDJSON, the current expense's open JSON object) is ever in memory.
+ *
+ * <p>NDJSON writes one expense per line with its splits nested; CSV writes one row per split.
+ */
+@Slf4j
+@Service
+public class ExpenseExportService {
+
+    static final String CSV_HEADER = "expense_id,description,amount,currency,created_at,paid_by_id,paid_by_name,"
+            + "split_id,user_id,user_name,split_amount,split_paid\n";
+
+    // Splits are left-joined so expenses without splits still export
+    private static final String EXPORT_SQL = """
+            select e.id, e.description, e.amount, e.created_at, p.id, p.name,
+                   s.id, u.id, u.name, s.amount, s.is_paid, e.currency
+            from expenses e
+            join users p on p.id = e.paid_by_id
+            left join expense_splits s on s.expense_id = e.id
+            left join users u on u.id = s.user_id
+            where e.group_id = ?
+            order by e.id, s.id
+            """;
+
+    private final GroupRepository groupRepository;
+    private final GroupMembershipIndex membershipIndex;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final int fetchSize;
+
+    public ExpenseExportService(GroupRepository groupRepository,
+                                GroupMembershipIndex membershipIndex,
+                                ObjectMapper objectMapper,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.export.fetchSize:1000}") int fetchSize) {
+        this.groupRepository = groupRepository;
+        this.membershipIndex = membershipIndex;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+        // PostgreSQL only honours the fetch size (a server-side cursor) outside autocommit
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Called before the response is committed, so a missing group or non-member still gets a 400/403.
+     */
+    @Transactional(readOnly = true)
+    public void checkAccess(Long groupId, User requester) {
+        if (!groupRepository.existsById(groupId)) {
+            throw new IllegalArgumentException("Group not found with id: " + groupId);
+        }
+        membershipIndex.checkMember(groupId, requester);
+    }
+
+    /**
+     * Writes the export to {@code out}. A write failure (typically the client going away) aborts the
+     * query and releases the cursor instead of reading the rest of the group.
+     */
+    public void export(Long groupId, ExpenseFileFormat format, boolean gzip, OutputStream out) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : new BufferedOutputStream(out, 64 * 1024);
+        ExportWriter writer = format == ExpenseFileFormat.CSV ? new CsvWriter(target) : new NdjsonWriter(target);
+        try {
+            readOnlyTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                // Set on this statement only: the JdbcTemplate is shared with the rest of the application
+                PreparedStatement statement = connection.prepareStatement(EXPORT_SQL);
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, groupId);
+                return statement;
+            }, writer));
+            writer.finish();
+            target.close();
+        } catch (UncheckedIOException e) {
+            log.debug("Export of group {} aborted: {}", groupId, e.getCause().getMessage());
+            throw e.getCause();
+        }
+    }
+
+    private abstract static class ExportWriter implements RowCallbackHandler {
+
+        @Override
+        public final void processRow(ResultSet rs) throws SQLException {
+            try {
+                writeRow(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        abstract void writeRow(ResultSet rs) throws SQLException, IOException;
+
+        abstract void finish() throws IOException;
+    }
+
+    private final class NdjsonWriter extends ExportWriter {
+        private final JsonGenerator json;
+        private long currentExpenseId = -1;
+
+        private NdjsonWriter(OutputStream out) throws IOException {
+            this.json = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines are separated by hand; the default separator would start each one after the first with a space
+            json.setRootValueSeparator(null);
+        }
+
+        @Override
+        void writeRow(ResultSet rs) throws SQLException, IOException {
+            long expenseId = rs.getLong(1);
+            if (expenseId != currentExpenseId) {
+                closeExpense();
+                currentExpenseId = expenseId;
+                json.writeStartObject();
+                json.writeNumberField("id", expenseId);
+                json.writeStringField("description", rs.getString(2));
+                json.writeNumberField("amount", rs.getBigDecimal(3));
+                json.writeStringField("currency", rs.getString(12));
+                json.writeStringField("createdAt", instant(rs, 4));
+                json.writeNumberField("paidById", rs.getLong(5));
+                json.writeStringField("paidByName", rs.getString(6));
+                json.writeArrayFieldStart("splits");
+            }
+            long splitId = rs.getLong(7);
+            if (!rs.wasNull()) {
+                json.writeStartObject();
+                json.writeNumberField("id", splitId);
+                json.writeNumberField("userId", rs.getLong(8));
+                json.writeStringField("userName", rs.getString(9));
+                json.writeNumberField("amount", rs.getBigDecimal(10));
+                json.writeBooleanField("paid", rs.getBoolean(11));
+                json.writeEndObject();
+            }
+        }
+
+        private void closeExpense() throws IOException {
+            if (currentExpenseId < 0) return;
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        void finish() throws IOException {
+            closeExpense();
+            json.flush();
+        }
+    }
+
+    private static final class CsvWriter extends ExportWriter {
+        private final Writer out;
+        private boolean headerWritten;
+
+        private CsvWriter(OutputStream out) {
+            this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        void writeRow(ResultSet rs) throws SQLException, IOException {
+            writeHeader();
+            out.write(Long.toString(rs.getLong(1)));
+            out.write(',');
+            out.write(escape(rs.getString(2)));
+            out.write(',');
+            out.write(plain(rs.getBigDecimal(3)));
+            out.write(',');
+            out.write(nullToEmpty(rs.getString(12)));
+            out.write(',');
+            out.write(nullToEmpty(instant(rs, 4)));
+            out.write(',');
+            out.write(Long.toString(rs.getLong(5)));
+            out.write(',');
+            out.write(escape(rs.getString(6)));
+            out.write(',');
+            long splitId = rs.getLong(7);
+            if (!rs.wasNull()) {
+                out.write(Long.toString(splitId));
+                out.write(',');
+                out.write(Long.toString(rs.getLong(8)));
+                out.write(',');
+                out.write(escape(rs.getString(9)));
+                out.write(',');
+                out.write(plain(rs.getBigDecimal(10)));
+                out.write(',');
+                out.write(Boolean.toString(rs.getBoolean(11)));
+            } else {
+                out.write(",,,,");
+            }
+            out.write('\n');
+        }
+
+        private void writeHeader() throws IOException {
+            if (headerWritten) return;
+            out.write(CSV_HEADER);
+            headerWritten = true;
+        }
+
+        @Override
+        void finish() throws IOException {
+            writeHeader();
+            out.flush();
+        }
+    }
+
+    private static String instant(ResultSet rs, int column) throws SQLException {
+        OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+        return value == null ? null : value.toInstant().toString();
+    }
+
+    private static String plain(BigDecimal value) {
+        return value == null ? "" : value.toPlainString();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    static String escape(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,42 @@
+package com.expensesplitter.service;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Line-oriented formats accepted by the bulk import and produced by the export.
+ */
+public enum ExpenseFileFormat {
+    CSV(MediaType.valueOf("text/csv")),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    ExpenseFileFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public static ExpenseFileFormat fromParam(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown expense file format: " + value);
+        }
+    }
+
+    public static ExpenseFileFormat fromMediaType(MediaType mediaType) {
+        for (ExpenseFileFormat format : values()) {
+            if (mediaType != null && mediaType.isCompatibleWith(format.mediaType)) return format;
+        }
+        throw new IllegalArgumentException("Unsupported expense file format: " + mediaType);
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String paramValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
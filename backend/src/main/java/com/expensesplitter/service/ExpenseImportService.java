@@ -0,0 +1,337 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.CreateExpenseRequest;
+import com.expensesplitter.dto.ExpenseImportResultDTO;
+import com.expensesplitter.dto.ImportRowErrorDTO;
+import com.expensesplitter.model.Expense;
+import com.expensesplitter.model.Group;
+import com.expensesplitter.model.User;
+import com.expensesplitter.repository.ExpenseRepository;
+import com.expensesplitter.repository.GroupRepository;
+import com.expensesplitter.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV or NDJSON body of expenses into a group, one line at a time.
+ * Valid rows are committed in chunks of {@code app.import.chunkSize}; invalid rows are skipped
+ * and reported by line number, so one bad row never rolls back the rest of the file.
+ *
+ * <p>CSV needs a header with {@code description}, {@code amount} and {@code splits}
+ * ({@code userId:amount;userId:amount}) and may add {@code paidById}. NDJSON lines carry the same
+ * fields, with {@code splits} as a JSON object. Like the single create endpoint, every row is paid by
+ * the importer: a {@code paidById} naming anyone else fails the row.
+ * Amounts are taken to be in the group's base currency.
+ */
+@Slf4j
+@Service
+public class ExpenseImportService {
+
+    record ImportRow(String description, BigDecimal amount, Long paidById, Map<Long, BigDecimal> splits) {
+    }
+
+    private record PendingRow(long line, ImportRow row) {
+    }
+
+    private final GroupRepository groupRepository;
+    private final UserRepository userRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseService expenseService;
+    private final GroupMembershipIndex membershipIndex;
+    private final BalanceService balanceService;
+    private final SpendingRollupService spendingRollupService;
+    private final OutboxService outboxService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public ExpenseImportService(GroupRepository groupRepository,
+                                UserRepository userRepository,
+                                ExpenseRepository expenseRepository,
+                                ExpenseService expenseService,
+                                GroupMembershipIndex membershipIndex,
+                                BalanceService balanceService,
+                                SpendingRollupService spendingRollupService,
+                                OutboxService outboxService,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.import.chunkSize:1000}") int chunkSize,
+                                @Value("${app.import.maxErrors:1000}") int maxErrors) {
+        this.groupRepository = groupRepository;
+        this.userRepository = userRepository;
+        this.expenseRepository = expenseRepository;
+        this.expenseService = expenseService;
+        this.membershipIndex = membershipIndex;
+        this.balanceService = balanceService;
+        this.spendingRollupService = spendingRollupService;
+        this.outboxService = outboxService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxErrors = Math.max(0, maxErrors);
+    }
+
+    public ExpenseImportResultDTO importExpenses(Long groupId, InputStream body, ExpenseFileFormat format, User requester)
+            throws IOException {
+        long[] memberIds = loadMemberIds(groupId, requester);
+        ImportReport report = new ImportReport(maxErrors);
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        Map<String, Integer> header = null;
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            if (line.isBlank()) continue;
+            if (format == ExpenseFileFormat.CSV && header == null) {
+                header = parseHeader(line);
+                continue;
+            }
+
+            try {
+                ImportRow row = format == ExpenseFileFormat.CSV ? parseCsvRow(line, header) : parseJsonRow(line);
+                if (row.paidById() != null && !row.paidById().equals(requester.getId())) {
+                    throw new IllegalStateException("Imported expenses can only be paid by the importer");
+                }
+                validate(row, groupId, requester.getId(), memberIds);
+                chunk.add(new PendingRow(lineNumber, row));
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                report.fail(lineNumber, e.getMessage());
+            }
+
+            if (chunk.size() == chunkSize) {
+                commitChunk(groupId, requester, chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            commitChunk(groupId, requester, chunk, report);
+        }
+        return report.toDTO();
+    }
+
+    // Read once for the whole file from the membership index, as the single create endpoint does
+    private long[] loadMemberIds(Long groupId, User requester) {
+        if (!groupRepository.existsById(groupId)) {
+            throw new IllegalArgumentException("Group not found with id: " + groupId);
+        }
+        long[] ids = membershipIndex.memberIds(groupId);
+        if (!GroupMembershipIndex.contains(ids, requester.getId())) {
+            throw new IllegalStateException("User is not a member of this group");
+        }
+        return ids;
+    }
+
+    // Same rules as POST /groups/{groupId}/expenses, checked against the member ids loaded up front
+    private void validate(ImportRow row, Long groupId, Long paidById, long[] memberIds) {
+        CreateExpenseRequest request = new CreateExpenseRequest(row.description(), row.amount(), groupId, row.splits());
+        Set<ConstraintViolation<CreateExpenseRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        ExpenseService.checkSplits(row.amount(), row.splits(), paidById,
+                userId -> GroupMembershipIndex.contains(memberIds, userId));
+    }
+
+    private void commitChunk(Long groupId, User requester, List<PendingRow> chunk, ImportReport report) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Group group = groupRepository.getReferenceById(groupId);
+                User paidBy = userRepository.getReferenceById(requester.getId());
+                Instant now = Instant.now();
+                List<Expense> expenses = new ArrayList<>(chunk.size());
+                for (PendingRow pending : chunk) {
+                    ImportRow row = pending.row();
+                    expenses.add(expenseService.buildExpense(group, paidBy, row.description(), row.amount(), null,
+                            row.splits(), userRepository::getReferenceById, now));
+                }
+                // Splits cascade from the expense, so this is two batched inserts per chunk
+                expenseRepository.saveAll(expenses);
+                balanceService.recordExpenses(groupId, expenses);
+                spendingRollupService.recordExpenses(groupId, expenses);
+                outboxService.recordExpensesCreated(groupId, expenses);
+                // The request may hold an open-in-view session; keep it from growing chunk over chunk
+                entityManager.flush();
+                entityManager.clear();
+            });
+            report.imported += chunk.size();
+        } catch (RuntimeException e) {
+            log.warn("Import chunk for group {} starting at line {} rolled back", groupId, chunk.get(0).line(), e);
+            report.failChunk(chunk.get(0).line(), chunk.size(),
+                    "Chunk of " + chunk.size() + " rows starting at this line was rolled back: " + e.getMessage());
+        }
+    }
+
+    private ImportRow parseJsonRow(String line) {
+        try {
+            return objectMapper.readValue(line, ImportRow.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static Map<String, Integer> parseHeader(String line) {
+        Map<String, Integer> header = new HashMap<>();
+        List<String> names = splitCsvLine(line);
+        for (int i = 0; i < names.size(); i++) {
+            header.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("description", "amount", "splits")) {
+            if (!header.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header must contain a '" + required + "' column");
+            }
+        }
+        return header;
+    }
+
+    private static ImportRow parseCsvRow(String line, Map<String, Integer> header) {
+        List<String> fields = splitCsvLine(line);
+        String paidBy = field(fields, header, "paidbyid");
+        return new ImportRow(
+                field(fields, header, "description"),
+                parseAmount(field(fields, header, "amount")),
+                paidBy == null ? null : parseId(paidBy),
+                parseSplits(field(fields, header, "splits")));
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> header, String name) {
+        Integer index = header.get(name);
+        if (index == null || index >= fields.size()) return null;
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // "12:30.00;15:20.00" -> {12=30.00, 15=20.00}
+    private static Map<Long, BigDecimal> parseSplits(String value) {
+        if (value == null) return null;
+        Map<Long, BigDecimal> splits = new LinkedHashMap<>();
+        for (String part : value.split(";")) {
+            if (part.isBlank()) continue;
+            int colon = part.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Split '" + part.trim() + "' must be userId:amount");
+            }
+            Long userId = parseId(part.substring(0, colon).trim());
+            if (splits.put(userId, parseAmount(part.substring(colon + 1).trim())) != null) {
+                throw new IllegalArgumentException("Duplicate split for user " + userId);
+            }
+        }
+        return splits;
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid user id: " + value);
+        }
+    }
+
+    private static BigDecimal parseAmount(String value) {
+        if (value == null) return null;
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + value);
+        }
+    }
+
+    // RFC 4180 fields on a single line: commas inside double quotes, "" as an escaped quote
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static final class ImportReport {
+        private final int maxErrors;
+        private final List<ImportRowErrorDTO> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+        private boolean truncated;
+
+        private ImportReport(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void fail(long line, String message) {
+            failChunk(line, 1, message);
+        }
+
+        private void failChunk(long line, int rows, String message) {
+            failed += rows;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportRowErrorDTO(line, message));
+            } else {
+                truncated = true;
+            }
+        }
+
+        private ExpenseImportResultDTO toDTO() {
+            return new ExpenseImportResultDTO(imported, failed, errors, truncated);
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.model.OutboxEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-group inverted index over expense descriptions, for prefix search without scanning the table.
+ * <p>
+ * A group's index is built from the database on its first search and then kept current from
+ * {@code EXPENSES_CREATED} outbox events, so a new expense becomes searchable once this node's
+ * {@link OutboxBroadcaster} has read it. The build holds no lock: searches of the group wait for it, while events arriving
+ * meanwhile are buffered and applied after the load, so a cold build never stalls event delivery.
+ * Searches share a read lock; only applying an event takes the write lock. Indexes are held in LRU
+ * order under a total size budget ({@code app.search.maxIndexSize}); a cold group that is evicted is
+ * simply rebuilt on its next search.
+ */
+@Slf4j
+@Component
+public class ExpenseSearchIndex {
+
+    static final int MAX_TOKEN_LENGTH = 40;
+
+    // Rough heap cost of the structures below, used for the size budget
+    private static final long TERM_OVERHEAD = 96;
+    private static final long DOC_OVERHEAD = 64;
+    private static final long INDEX_OVERHEAD = 256;
+
+    private static final String LOAD_SQL = "select id, description from expenses where group_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final int fetchSize;
+    private final long maxBytes;
+
+    // Access-ordered; guards totalBytes and every GroupIndex's accounting fields
+    private final LinkedHashMap<Long, GroupIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ExpenseSearchIndex(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry registry,
+                              @Value("${app.search.maxIndexSize:64MB}") DataSize maxIndexSize,
+                              @Value("${app.export.fetchSize:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.maxBytes = maxIndexSize.toBytes();
+
+        FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+                .tag("cache", "expense-search").tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+                .tag("cache", "expense-search").tag("result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::doubleValue)
+                .tag("cache", "expense-search").register(registry);
+        Gauge.builder("cache.size", this, ExpenseSearchIndex::size)
+                .tag("cache", "expense-search").register(registry);
+        Gauge.builder("search.index.size", this, ExpenseSearchIndex::bytes)
+                .baseUnit("bytes").register(registry);
+    }
+
+    /**
+     * Returns up to {@code limit} expense ids whose descriptions contain, for every query term, a word
+     * starting with it. Best matches first: exact words beat prefixes, rare words beat common ones and
+     * short descriptions beat long ones; ties go to the newer (higher) id.
+     */
+    public List<Long> search(Long groupId, String query, int limit) {
+        String[] terms = tokenize(query).toArray(String[]::new);
+        if (terms.length == 0) return List.of();
+
+        while (true) {
+            GroupIndex index = acquire(groupId);
+            try {
+                index.built.join();
+            } catch (CompletionException | CancellationException e) {
+                continue; // the build we waited for failed; retrying starts a fresh one
+            }
+            index.lock.readLock().lock();
+            try {
+                return index.search(terms, limit);
+            } finally {
+                index.lock.readLock().unlock();
+            }
+        }
+    }
+
+    @EventListener
+    public void onDomainEvent(DomainEventBroadcast broadcast) {
+        DomainEvent event = broadcast.event();
+        if (event.type() == OutboxEvent.Type.GROUP_DELETED) {
+            synchronized (indexes) {
+                GroupIndex removed = indexes.remove(event.groupId());
+                if (removed != null) release(removed);
+            }
+            return;
+        }
+        if (event.type() != OutboxEvent.Type.EXPENSES_CREATED) return;
+
+        GroupIndex index;
+        synchronized (indexes) {
+            index = indexes.get(event.groupId());
+        }
+        if (index == null) return; // built from the database when first searched
+
+        List<PendingExpense> expenses = new ArrayList<>();
+        for (JsonNode expense : event.payload().path("expenses")) {
+            expenses.add(new PendingExpense(expense.path("expenseId").asLong(), expense.path("description").asText("")));
+        }
+        synchronized (index) {
+            if (!index.ready) {
+                index.pending.addAll(expenses); // applied by the build once its load is done
+                return;
+            }
+        }
+        index.lock.writeLock().lock();
+        try {
+            expenses.forEach(expense -> index.add(expense.id(), expense.description()));
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+        account(index);
+    }
+
+    // Returns the group's index, building it on this thread first if nobody has; callers wait on index.built
+    private GroupIndex acquire(Long groupId) {
+        GroupIndex index;
+        synchronized (indexes) {
+            index = indexes.get(groupId);
+            if (index != null) {
+                hits.increment();
+                return index;
+            }
+            index = new GroupIndex(groupId);
+            indexes.put(groupId, index);
+            misses.increment();
+        }
+
+        try {
+            // Only this thread touches the index until it is ready; events published meanwhile are buffered
+            GroupIndex target = index;
+            readOnlyTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(LOAD_SQL);
+                statement.setFetchSize(fetchSize); // per statement: the JdbcTemplate is shared
+                statement.setLong(1, groupId);
+                return statement;
+            }, rs -> { target.add(rs.getLong(1), rs.getString(2)); }));
+            index.lock.writeLock().lock();
+            try {
+                synchronized (index) {
+                    // Expenses already loaded are skipped by add()
+                    index.pending.forEach(expense -> target.add(expense.id(), expense.description()));
+                    index.pending.clear();
+                    index.ready = true;
+                }
+            } finally {
+                index.lock.writeLock().unlock();
+            }
+        } catch (RuntimeException e) {
+            synchronized (indexes) {
+                indexes.remove(groupId, index);
+                release(index);
+            }
+            index.built.completeExceptionally(e);
+            throw e;
+        }
+        index.built.complete(null);
+        account(index);
+        return index;
+    }
+
+    private void account(GroupIndex index) {
+        synchronized (indexes) {
+            if (index.evicted) return;
+            totalBytes += index.bytes - index.accountedBytes;
+            index.accountedBytes = index.bytes;
+
+            // Never evict the only index left, however large
+            Iterator<GroupIndex> eldest = indexes.values().iterator();
+            while (totalBytes > maxBytes && indexes.size() > 1 && eldest.hasNext()) {
+                GroupIndex victim = eldest.next();
+                if (victim == index) continue;
+                eldest.remove();
+                release(victim);
+                evictions.increment();
+                log.debug("Evicted search index of group {} ({} bytes)", victim.groupId, victim.accountedBytes);
+            }
+        }
+    }
+
+    // Caller holds the indexes monitor
+    private void release(GroupIndex index) {
+        index.evicted = true;
+        totalBytes -= index.accountedBytes;
+        index.accountedBytes = 0;
+    }
+
+    int size() {
+        synchronized (indexes) {
+            return indexes.size();
+        }
+    }
+
+    private long bytes() {
+        synchronized (indexes) {
+            return totalBytes;
+        }
+    }
+
+    /** Lower-cased runs of letters and digits, each cut to {@value #MAX_TOKEN_LENGTH} chars, in order, distinct. */
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) return tokens;
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, Math.min(i, start + MAX_TOKEN_LENGTH)));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private record PendingExpense(long id, String description) {
+    }
+
+    private static final class GroupIndex {
+        final Long groupId;
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final CompletableFuture<Void> built = new CompletableFuture<>();
+        final List<PendingExpense> pending = new ArrayList<>(); // guarded by the index's monitor
+        final TreeMap<String, Postings> terms = new TreeMap<>();
+        final Map<Long, Integer> termCounts = new HashMap<>(); // expense id -> distinct terms
+        boolean ready;                  // guarded by the index's monitor
+        volatile long bytes = INDEX_OVERHEAD;
+        long accountedBytes;            // guarded by the indexes monitor
+        boolean evicted;                // guarded by the indexes monitor
+
+        GroupIndex(Long groupId) {
+            this.groupId = groupId;
+        }
+
+        void add(long expenseId, String description) {
+            if (termCounts.containsKey(expenseId)) return;
+            Set<String> tokens = tokenize(description);
+            long added = DOC_OVERHEAD;
+            for (String token : tokens) {
+                Postings postings = terms.get(token);
+                if (postings == null) {
+                    postings = new Postings();
+                    terms.put(token, postings);
+                    added += TERM_OVERHEAD + 2L * token.length();
+                }
+                added += postings.add(expenseId);
+            }
+            termCounts.put(expenseId, tokens.size());
+            bytes += added;
+        }
+
+        List<Long> search(String[] queryTerms, int limit) {
+            Map<Long, Double> scores = null;
+            double documents = termCounts.size();
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> matches = new HashMap<>();
+                // Every word starting with the query term; a word is at most MAX_TOKEN_LENGTH chars
+                String prefix = queryTerm.length() > MAX_TOKEN_LENGTH ? queryTerm.substring(0, MAX_TOKEN_LENGTH) : queryTerm;
+                for (Map.Entry<String, Postings> entry : terms.subMap(prefix, prefix + Character.MAX_VALUE).entrySet()) {
+                    Postings postings = entry.getValue();
+                    double weight = (entry.getKey().equals(prefix) ? 1.0 : 0.5) * Math.log(1 + documents / postings.size);
+                    for (int i = 0; i < postings.size; i++) {
+                        long id = postings.ids[i];
+                        if (scores == null || scores.containsKey(id)) {
+                            matches.merge(id, weight, Math::max);
+                        }
+                    }
+                }
+                if (scores != null) {
+                    Map<Long, Double> previous = scores;
+                    matches.replaceAll((id, weight) -> previous.get(id) + weight);
+                }
+                scores = matches;
+                if (scores.isEmpty()) return List.of();
+            }
+
+            // Bounded min-heap keeps the best `limit` without sorting every match
+            PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(limit + 1, (a, b) -> {
+                int byScore = Double.compare(a.getValue(), b.getValue());
+                return byScore != 0 ? byScore : Long.compare(a.getKey(), b.getKey());
+            });
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                entry.setValue(entry.getValue() / Math.sqrt(Math.max(1, termCounts.get(entry.getKey()))));
+                best.add(entry);
+                if (best.size() > limit) best.poll();
+            }
+            List<Long> ranked = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                ranked.add(best.poll().getKey());
+            }
+            Collections.reverse(ranked);
+            return ranked;
+        }
+    }
+
+    // Growable long array of expense ids; returns the bytes each add allocated
+    private static final class Postings {
+        long[] ids = new long[2];
+        int size;
+
+        long add(long id) {
+            long grown = 0;
+            if (size == ids.length) {
+                grown = 8L * ids.length;
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            ids[size++] = id;
+            return grown;
+        }
+    }
+}
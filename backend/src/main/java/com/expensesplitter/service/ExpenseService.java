@@ -1,9 +1,16 @@
 package com.expensesplitter.service;
 
+import com.expensesplitter.dto.BulkPaySplitsRequest;
+import com.expensesplitter.dto.BulkPaySplitsResultDTO;
+import com.expensesplitter.dto.CreateExpenseItemRequest;
 import com.expensesplitter.dto.CreateExpenseRequest;
+import com.expensesplitter.dto.CreateItemizedExpenseRequest;
 import com.expensesplitter.dto.ExpenseDTO;
+import com.expensesplitter.dto.ExpensePageDTO;
 import com.expensesplitter.dto.ExpenseSplitDTO;
+import com.expensesplitter.dto.ExpenseSplitRowDTO;
 import com.expensesplitter.model.Expense;
+import com.expensesplitter.model.ExpenseItem;
 import com.expensesplitter.model.ExpenseSplit;
 import com.expensesplitter.model.Group;
 import com.expensesplitter.model.User;
@@ -12,91 +19,266 @@ import com.expensesplitter.repository.ExpenseSplitRepository;
 import com.expensesplitter.repository.GroupRepository;
 import com.expensesplitter.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.util.ArrayList;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ExpenseService {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+    static final int BULK_UPDATE_CHUNK = 1000;
+    static final int DEFAULT_SEARCH_LIMIT = 20;
+    static final int MAX_SEARCH_LIMIT = 100;
+
     private final ExpenseRepository expenseRepository;
     private final ExpenseSplitRepository expenseSplitRepository;
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
+    private final BalanceService balanceService;
+    private final SpendingRollupService spendingRollupService;
+    private final OutboxService outboxService;
+    private final ExpenseSearchIndex expenseSearchIndex;
+    private final FxRateService fxRateService;
+    private final GroupMembershipIndex membershipIndex;
 
     @Transactional
     public ExpenseDTO createExpense(CreateExpenseRequest request, User paidBy) {
         Group group = groupRepository.findById(request.getGroupId())
                 .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + request.getGroupId()));
 
-        if (!group.getMembers().contains(paidBy)) {
+        long[] memberIds = membershipIndex.memberIds(group.getId());
+        if (!GroupMembershipIndex.contains(memberIds, paidBy.getId())) {
             throw new IllegalStateException("User is not a member of this group");
         }
 
-        // Validate splits
-        BigDecimal totalSplits = request.getSplits().values().stream()
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Resolve all split users in one query, then check the request against the member ids
+        Map<Long, User> splitUsers = userRepository.findAllById(request.getSplits().keySet()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        for (Long userId : request.getSplits().keySet()) {
+            if (!splitUsers.containsKey(userId)) {
+                throw new IllegalArgumentException("User not found with id: " + userId);
+            }
+        }
+        checkSplits(request.getAmount(), request.getSplits(), paidBy.getId(),
+                userId -> GroupMembershipIndex.contains(memberIds, userId));
 
-        if (totalSplits.compareTo(request.getAmount()) != 0) {
-            throw new IllegalArgumentException("Total splits must equal expense amount");
+        // Splits cascade from the expense; ids come from a pooled sequence so the inserts are batched at flush
+        Expense expense = buildExpense(group, paidBy, request.getDescription(), request.getAmount(),
+                request.getCurrency(), request.getSplits(), splitUsers::get, Instant.now());
+        expense = expenseRepository.save(expense);
+
+        balanceService.recordExpense(expense);
+        spendingRollupService.recordExpenses(group.getId(), List.of(expense));
+        outboxService.recordExpensesCreated(group.getId(), List.of(expense));
+        return DtoMapper.toDTO(expense);
+    }
+
+    /**
+     * Creates an expense from receipt lines. Splits are derived by {@link ReceiptSplitter}: assigned
+     * items go to their assignee, shared items to every participant, tax and tip pro rata.
+     */
+    @Transactional
+    public ExpenseDTO createItemizedExpense(CreateItemizedExpenseRequest request, User paidBy) {
+        Group group = groupRepository.findById(request.getGroupId())
+                .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + request.getGroupId()));
+
+        long[] memberIds = membershipIndex.memberIds(group.getId());
+        if (!GroupMembershipIndex.contains(memberIds, paidBy.getId())) {
+            throw new IllegalStateException("User is not a member of this group");
         }
 
-        // Validate all split users are group members
-        for (Long userId : request.getSplits().keySet()) {
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
-            if (!group.getMembers().contains(user)) {
+        List<CreateExpenseItemRequest> items = request.getItems();
+        Set<Long> participantIds = new TreeSet<>();
+        if (request.getParticipants() == null || request.getParticipants().isEmpty()) {
+            Arrays.stream(memberIds).forEach(participantIds::add);
+        } else {
+            participantIds.addAll(request.getParticipants());
+        }
+        long[] itemCents = new long[items.size()];
+        long[] assignedTo = new long[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            CreateExpenseItemRequest item = items.get(i);
+            itemCents[i] = exactCents(item.getAmount());
+            assignedTo[i] = item.getAssignedToId() == null ? ReceiptSplitter.SHARED : item.getAssignedToId();
+            if (item.getAssignedToId() != null) {
+                participantIds.add(item.getAssignedToId());
+            }
+        }
+        for (Long userId : participantIds) {
+            if (!GroupMembershipIndex.contains(memberIds, userId)) {
                 throw new IllegalStateException("User " + userId + " is not a member of this group");
             }
         }
+        Map<Long, User> members = userRepository.findAllById(participantIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        long[] participants = participantIds.stream().mapToLong(Long::longValue).toArray();
+        long extraCents = exactCents(request.getTax()) + exactCents(request.getTip());
+        long[] shares = ReceiptSplitter.split(participants, itemCents, assignedTo, items.size(), extraCents);
 
         Expense expense = new Expense();
         expense.setDescription(request.getDescription());
-        expense.setAmount(request.getAmount());
         expense.setGroup(group);
         expense.setPaidBy(paidBy);
         expense.setCreatedAt(Instant.now());
-        expense = expenseRepository.save(expense);
-
-        // Create splits
-        List<ExpenseSplit> splits = new ArrayList<>();
-        for (Map.Entry<Long, BigDecimal> entry : request.getSplits().entrySet()) {
-            User user = userRepository.findById(entry.getKey())
-                    .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + entry.getKey()));
 
+        long totalCents = 0;
+        for (int i = 0; i < items.size(); i++) {
+            ExpenseItem item = new ExpenseItem();
+            item.setDescription(items.get(i).getDescription());
+            item.setAmount(items.get(i).getAmount());
+            item.setExpense(expense);
+            item.setAssignedTo(items.get(i).getAssignedToId() == null ? null : members.get(items.get(i).getAssignedToId()));
+            expense.getItems().add(item);
+        }
+        for (int u = 0; u < participants.length; u++) {
+            totalCents += shares[u];
+            if (shares[u] == 0) continue;
             ExpenseSplit split = new ExpenseSplit();
             split.setExpense(expense);
-            split.setUser(user);
-            split.setAmount(entry.getValue());
+            split.setUser(members.get(participants[u]));
+            split.setAmount(BigDecimal.valueOf(shares[u], 2));
             split.setPaid(false);
-            splits.add(expenseSplitRepository.save(split));
+            expense.getSplits().add(split);
         }
+        expense.setAmount(BigDecimal.valueOf(totalCents, 2));
+        expense.setCurrency(FxRates.normalize(request.getCurrency(), group.getBaseCurrency()));
+        convertToBaseCurrency(expense, group.getBaseCurrency());
 
-        expense.setSplits(splits);
-        return toDTO(expense);
+        // Items and splits cascade from the expense and go out as batched inserts
+        expense = expenseRepository.save(expense);
+        balanceService.recordExpense(expense);
+        spendingRollupService.recordExpenses(group.getId(), List.of(expense));
+        outboxService.recordExpensesCreated(group.getId(), List.of(expense));
+        return DtoMapper.toDTO(expense);
     }
 
+    /**
+     * Maps straight from two projection queries (expenses with payer, then all split rows), so the
+     * statement count does not grow with the number of expenses or splits.
+     */
+    @Transactional(readOnly = true)
     public List<ExpenseDTO> getExpensesByGroup(Long groupId) {
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + groupId));
+        if (!groupRepository.existsById(groupId)) {
+            throw new IllegalArgumentException("Group not found with id: " + groupId);
+        }
+
+        List<ExpenseDTO> expenses = expenseRepository.findDTOsByGroupId(groupId);
+        Map<Long, ExpenseDTO> byId = new HashMap<>(expenses.size() * 2);
+        for (ExpenseDTO expense : expenses) {
+            byId.put(expense.getId(), expense);
+        }
+        for (ExpenseSplitRowDTO row : expenseSplitRepository.findRowsByGroupId(groupId)) {
+            ExpenseDTO expense = byId.get(row.getExpenseId());
+            if (expense != null) {
+                expense.getSplits().add(row.toSplitDTO());
+            }
+        }
+        return expenses;
+    }
+
+    /**
+     * One page of a group's expenses, newest first. The cursor encodes the last (createdAt, id)
+     * returned, so every page is the same bounded index range scan however deep it is.
+     */
+    @Transactional(readOnly = true)
+    public ExpensePageDTO getExpensePage(Long groupId, User requester, String cursor, Integer size, Instant since) {
+        if (!groupRepository.existsById(groupId)) {
+            throw new IllegalArgumentException("Group not found with id: " + groupId);
+        }
+        membershipIndex.checkMember(groupId, requester);
+
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // One extra row tells us whether there is a next page without a count query
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        Instant from = since != null ? since : Instant.EPOCH;
+
+        List<Expense> expenses;
+        if (cursor == null || cursor.isBlank()) {
+            expenses = expenseRepository.findFirstPage(groupId, from, limit);
+        } else {
+            Expense last = decodeCursor(cursor);
+            expenses = expenseRepository.findPageBefore(groupId, from, last.getCreatedAt(), last.getId(), limit);
+        }
 
-        List<Expense> expenses = expenseRepository.findByGroup(group);
-        return expenses.stream()
-                .map(this::toDTO)
+        boolean hasMore = expenses.size() > pageSize;
+        if (hasMore) {
+            expenses = expenses.subList(0, pageSize);
+        }
+
+        Map<Long, List<ExpenseSplit>> splitsByExpense = expenses.isEmpty() ? Map.of()
+                : expenseSplitRepository.findWithUserByExpenseIdIn(expenses.stream().map(Expense::getId).toList())
+                        .stream()
+                        .collect(Collectors.groupingBy(split -> split.getExpense().getId()));
+
+        List<ExpenseDTO> items = expenses.stream()
+                .map(expense -> DtoMapper.toDTO(expense, splitsByExpense.getOrDefault(expense.getId(), List.of())))
+                .collect(Collectors.toList());
+        String nextCursor = hasMore ? encodeCursor(expenses.get(expenses.size() - 1)) : null;
+        return new ExpensePageDTO(items, nextCursor);
+    }
+
+    /**
+     * Ranked prefix search over the group's expense descriptions, served from {@link ExpenseSearchIndex};
+     * only the matching expenses are read from the database.
+     */
+    @Transactional(readOnly = true)
+    public List<ExpenseDTO> searchExpenses(Long groupId, User requester, String query, Integer limit) {
+        if (!groupRepository.existsById(groupId)) {
+            throw new IllegalArgumentException("Group not found with id: " + groupId);
+        }
+        membershipIndex.checkMember(groupId, requester);
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+
+        int max = limit == null ? DEFAULT_SEARCH_LIMIT : Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+        List<Long> ranked = expenseSearchIndex.search(groupId, query, max);
+        if (ranked.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, ExpenseDTO> byId = expenseRepository.findDTOsByIdIn(ranked).stream()
+                .collect(Collectors.toMap(ExpenseDTO::getId, Function.identity()));
+        for (ExpenseSplitRowDTO row : expenseSplitRepository.findRowsByExpenseIdIn(ranked)) {
+            ExpenseDTO expense = byId.get(row.getExpenseId());
+            if (expense != null) {
+                expense.getSplits().add(row.toSplitDTO());
+            }
+        }
+        // Keep the index's ranking; skip anything the index still has but the database no longer does
+        return ranked.stream()
+                .map(byId::get)
+                .filter(expense -> expense != null && expense.getGroupId().equals(groupId))
                 .collect(Collectors.toList());
     }
 
     public ExpenseDTO getExpenseById(Long id) {
         Expense expense = expenseRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Expense not found with id: " + id));
-        return toDTO(expense);
+        return DtoMapper.toDTO(expense);
     }
 
     @Transactional
@@ -108,41 +290,151 @@ public class ExpenseService {
             throw new IllegalStateException("User can only mark their own splits as paid");
         }
 
-        split.setPaid(true);
-        split = expenseSplitRepository.save(split);
+        if (expenseSplitRepository.markPaidIfUnpaid(splitId) == 1) {
+            balanceService.recordSplitPaid(split);
+            outboxService.recordSplitsPaid(user.getId(), List.of(split));
+        }
 
         ExpenseSplitDTO dto = new ExpenseSplitDTO();
         dto.setId(split.getId());
         dto.setUserId(split.getUser().getId());
         dto.setUserName(split.getUser().getName());
         dto.setAmount(split.getAmount());
-        dto.setPaid(split.isPaid());
+        dto.setPaid(true);
         return dto;
     }
 
-    private ExpenseDTO toDTO(Expense expense) {
-        ExpenseDTO dto = new ExpenseDTO();
-        dto.setId(expense.getId());
-        dto.setDescription(expense.getDescription());
-        dto.setAmount(expense.getAmount());
-        dto.setGroupId(expense.getGroup().getId());
-        dto.setPaidById(expense.getPaidBy().getId());
-        dto.setPaidByName(expense.getPaidBy().getName());
-        dto.setCreatedAt(expense.getCreatedAt());
-
-        List<ExpenseSplitDTO> splitDTOs = expense.getSplits().stream()
-                .map(split -> {
-                    ExpenseSplitDTO splitDTO = new ExpenseSplitDTO();
-                    splitDTO.setId(split.getId());
-                    splitDTO.setUserId(split.getUser().getId());
-                    splitDTO.setUserName(split.getUser().getName());
-                    splitDTO.setAmount(split.getAmount());
-                    splitDTO.setPaid(split.isPaid());
-                    return splitDTO;
-                })
-                .collect(Collectors.toList());
-        dto.setSplits(splitDTOs);
+    /**
+     * Marks many of the user's own splits paid in one transaction: the listed ids, every unpaid split
+     * in a group, or the listed ids within that group. Ids that are not the user's or are already paid
+     * are skipped. The flip is a set-based conditional update; the ledger moves once per group.
+     */
+    @Transactional
+    public BulkPaySplitsResultDTO markSplitsAsPaid(BulkPaySplitsRequest request, User user) {
+        boolean byIds = request.getSplitIds() != null && !request.getSplitIds().isEmpty();
+        if (!byIds && request.getGroupId() == null) {
+            throw new IllegalArgumentException("Either splitIds or groupId is required");
+        }
 
-        return dto;
+        List<ExpenseSplit> splits = byIds
+                ? expenseSplitRepository.findUnpaidByUserIdAndIdIn(user.getId(), new HashSet<>(request.getSplitIds()))
+                : expenseSplitRepository.findUnpaidByUserIdAndGroupId(user.getId(), request.getGroupId());
+        if (byIds && request.getGroupId() != null) {
+            splits.removeIf(split -> !split.getExpense().getGroup().getId().equals(request.getGroupId()));
+        }
+        if (splits.isEmpty()) {
+            return new BulkPaySplitsResultDTO(0, List.of());
+        }
+
+        List<Long> ids = splits.stream().map(ExpenseSplit::getId).toList();
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += BULK_UPDATE_CHUNK) {
+            updated += expenseSplitRepository.markPaidIfUnpaid(user.getId(),
+                    ids.subList(from, Math.min(ids.size(), from + BULK_UPDATE_CHUNK)));
+        }
+        if (updated != ids.size()) {
+            // Someone paid part of this set since we read it and already moved the ledger for it
+            throw new ConcurrencyFailureException("Some of these splits were paid concurrently, please retry");
+        }
+
+        balanceService.recordSplitsPaid(splits);
+        outboxService.recordSplitsPaid(user.getId(), splits);
+        Set<Long> groupIds = splits.stream()
+                .map(split -> split.getExpense().getGroup().getId())
+                .collect(Collectors.toCollection(TreeSet::new));
+        return new BulkPaySplitsResultDTO(updated, balanceService.getUserGroupBalances(user.getId(), groupIds));
+    }
+
+    private static String encodeCursor(Expense expense) {
+        String raw = expense.getCreatedAt() + "|" + expense.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns a detached Expense carrying only the cursor's (createdAt, id)
+    private static Expense decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            Expense last = new Expense();
+            last.setCreatedAt(Instant.parse(raw.substring(0, separator)));
+            last.setId(Long.valueOf(raw.substring(separator + 1)));
+            return last;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Rules every expense built from a split map must pass, whether it comes from a request, an import
+     * row or a recurring template: the payer and every split user are members and the splits add up.
+     */
+    static void checkSplits(BigDecimal amount, Map<Long, BigDecimal> splits, Long paidById, LongPredicate isMember) {
+        if (!isMember.test(paidById)) {
+            throw new IllegalStateException("User is not a member of this group");
+        }
+        BigDecimal totalSplits = BigDecimal.ZERO;
+        for (BigDecimal split : splits.values()) {
+            if (split == null) {
+                throw new IllegalArgumentException("Split amounts are required");
+            }
+            totalSplits = totalSplits.add(split);
+        }
+        if (totalSplits.compareTo(amount) != 0) {
+            throw new IllegalArgumentException("Total splits must equal expense amount");
+        }
+        for (Long userId : splits.keySet()) {
+            if (!isMember.test(userId)) {
+                throw new IllegalStateException("User " + userId + " is not a member of this group");
+            }
+        }
+    }
+
+    /** Builds an unsaved expense with its splits, converted into the group's base currency. */
+    public Expense buildExpense(Group group, User paidBy, String description, BigDecimal amount, String currency,
+                                Map<Long, BigDecimal> splits, Function<Long, User> users, Instant createdAt) {
+        Expense expense = new Expense();
+        expense.setDescription(description);
+        expense.setAmount(amount);
+        expense.setCurrency(FxRates.normalize(currency, group.getBaseCurrency()));
+        expense.setGroup(group);
+        expense.setPaidBy(paidBy);
+        expense.setCreatedAt(createdAt);
+        for (Map.Entry<Long, BigDecimal> entry : splits.entrySet()) {
+            ExpenseSplit split = new ExpenseSplit();
+            split.setExpense(expense);
+            split.setUser(users.apply(entry.getKey()));
+            split.setAmount(entry.getValue());
+            split.setPaid(false);
+            expense.getSplits().add(split);
+        }
+        convertToBaseCurrency(expense, group.getBaseCurrency());
+        return expense;
+    }
+
+    /**
+     * Fills in the base-currency amounts of an expense entered in another currency. The rate is read once
+     * from the current snapshot and stored with the expense, so the ledger and rollups can always be
+     * rebuilt to the same numbers; the base total is the sum of the converted splits so the ledger nets out.
+     */
+    private void convertToBaseCurrency(Expense expense, String baseCurrency) {
+        if (expense.getCurrency().equals(baseCurrency)) return;
+        BigDecimal rate = fxRateService.current().rate(expense.getCurrency(), baseCurrency);
+        BigDecimal total = BigDecimal.ZERO;
+        for (ExpenseSplit split : expense.getSplits()) {
+            split.setBaseAmount(split.getAmount().multiply(rate).setScale(2, RoundingMode.HALF_EVEN));
+            total = total.add(split.getBaseAmount());
+        }
+        expense.setFxRate(rate);
+        expense.setBaseAmount(total);
+    }
+
+    // Receipt amounts must already be whole cents; rounding here would break the exact allocation
+    private static long exactCents(BigDecimal amount) {
+        if (amount == null) return 0;
+        try {
+            return amount.movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amounts can have at most two decimal places: " + amount);
+        }
     }
-}
\ No newline at end of file
+}
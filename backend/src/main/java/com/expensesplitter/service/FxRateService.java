@@ -0,0 +1,103 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.model.FxRate;
+import com.expensesplitter.repository.FxRateRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the current {@link FxRates} snapshot, loaded from {@code app.fx.ratesFile} when set and from
+ * the {@code fx_rates} table otherwise. Reloads replace the snapshot with a single volatile write; a
+ * reload that fails keeps the previous snapshot.
+ *
+ * <p>The file has one {@code CODE,rate} per line (units per reference unit); blank lines and
+ * {@code #} comments are ignored.
+ */
+@Slf4j
+@Service
+public class FxRateService {
+
+    private final FxRateRepository fxRateRepository;
+    private final String ratesFile;
+    private final String defaultCurrency;
+
+    private volatile FxRates current = new FxRates(Map.of(), "none", Instant.EPOCH);
+
+    public FxRateService(FxRateRepository fxRateRepository,
+                         @Value("${app.fx.ratesFile:}") String ratesFile,
+                         @Value("${app.fx.defaultCurrency:USD}") String defaultCurrency) {
+        this.fxRateRepository = fxRateRepository;
+        this.ratesFile = ratesFile;
+        this.defaultCurrency = FxRates.normalize(defaultCurrency, "USD");
+    }
+
+    public FxRates current() {
+        return current;
+    }
+
+    /** Base currency of new groups and target of cross-group totals when none is requested. */
+    public String defaultCurrency() {
+        return defaultCurrency;
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.fx.reloadIntervalMs:300000}", initialDelayString = "${app.fx.reloadIntervalMs:300000}")
+    public void reload() {
+        try {
+            FxRates loaded = ratesFile.isBlank() ? loadFromDatabase() : loadFromFile(Path.of(ratesFile));
+            current = loaded;
+            log.debug("Loaded {} exchange rates from {}", loaded.size(), loaded.source());
+        } catch (RuntimeException e) {
+            log.warn("Reloading exchange rates failed, keeping {} rates from {}", current.size(), current.source(), e);
+        }
+    }
+
+    private FxRates loadFromDatabase() {
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (FxRate rate : fxRateRepository.findAll()) {
+            rates.put(FxRates.normalize(rate.getCurrency(), null), positive(rate.getRate(), rate.getCurrency()));
+        }
+        return new FxRates(rates, "fx_rates", Instant.now());
+    }
+
+    private FxRates loadFromFile(Path path) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split("\\s*,\\s*");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(path + ":" + (i + 1) + ": expected CODE,rate");
+            }
+            rates.put(FxRates.normalize(parts[0], null), positive(new BigDecimal(parts[1]), parts[0]));
+        }
+        return new FxRates(rates, path.toString(), Instant.now());
+    }
+
+    private static BigDecimal positive(BigDecimal rate, String currency) {
+        if (rate == null || rate.signum() <= 0) {
+            throw new IllegalArgumentException("Exchange rate for " + currency + " must be positive");
+        }
+        return rate;
+    }
+}
@@ -0,0 +1,72 @@
+package com.expensesplitter.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of exchange rates, quoted as units per one unit of a common reference currency.
+ * Readers grab the current snapshot once and convert against it without locks; a reload builds a new
+ * snapshot and swaps it in whole.
+ */
+public final class FxRates {
+
+    static final MathContext PRECISION = MathContext.DECIMAL64;
+
+    private final Map<String, BigDecimal> unitsPerReference;
+    private final String source;
+    private final Instant loadedAt;
+
+    public FxRates(Map<String, BigDecimal> unitsPerReference, String source, Instant loadedAt) {
+        this.unitsPerReference = Map.copyOf(unitsPerReference);
+        this.source = source;
+        this.loadedAt = loadedAt;
+    }
+
+    /** Multiplier turning an amount in {@code from} into {@code to}. */
+    public BigDecimal rate(String from, String to) {
+        if (from.equals(to)) return BigDecimal.ONE;
+        return units(to).divide(units(from), PRECISION);
+    }
+
+    /** Converts and rounds to cents, half-even. */
+    public BigDecimal convert(BigDecimal amount, String from, String to) {
+        if (from.equals(to)) return amount;
+        return amount.multiply(rate(from, to)).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    public int size() {
+        return unitsPerReference.size();
+    }
+
+    public String source() {
+        return source;
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    private BigDecimal units(String currency) {
+        BigDecimal units = unitsPerReference.get(currency);
+        if (units == null) {
+            throw new IllegalArgumentException("No exchange rate for " + currency);
+        }
+        return units;
+    }
+
+    /** Upper-cased ISO 4217 code, or {@code fallback} when none is given. */
+    public static String normalize(String currency, String fallback) {
+        if (currency == null || currency.isBlank()) return fallback;
+        String code = currency.trim().toUpperCase(Locale.ROOT);
+        try {
+            return Currency.getInstance(code).getCurrencyCode();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown currency: " + currency);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.model.User;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Member ids of recently used groups as sorted {@code long[]}s, for authorization checks that would
+ * otherwise initialize {@code Group.members}. A lookup is a binary search; a miss is one index-only
+ * query on {@code group_members}.
+ * <p>
+ * Like {@link SettlementCache}, entries carry the group's version, bumped after every membership
+ * change commits, so a list loaded concurrently with a change is never served once it is stale.
+ * Changes made on other nodes bump it when their {@link DomainEventBroadcast} arrives; since that is
+ * best effort, a list is also reloaded once it is older than {@code app.membership.ttl}, which bounds
+ * how long a removed user can still pass a check here. Bounded by {@code app.membership.cacheSize}
+ * groups, least recently used first out.
+ */
+@Component
+public class GroupMembershipIndex {
+
+    private static final String LOAD_SQL = "select user_id from group_members where group_id = ? order by user_id";
+
+    private record Members(long version, long[] ids, long loadedAtNanos) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxGroups;
+    private final long ttlNanos;
+    private final Map<Long, Members> entries;
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public GroupMembershipIndex(JdbcTemplate jdbcTemplate,
+                                MeterRegistry registry,
+                                @Value("${app.membership.cacheSize:10000}") int maxGroups,
+                                @Value("${app.membership.ttl:PT30S}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxGroups = maxGroups;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Members> eldest) {
+                if (size() > GroupMembershipIndex.this.maxGroups) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+                .tag("cache", "group-members").tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+                .tag("cache", "group-members").tag("result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::doubleValue)
+                .tag("cache", "group-members").register(registry);
+        Gauge.builder("cache.size", this, GroupMembershipIndex::size)
+                .tag("cache", "group-members").register(registry);
+    }
+
+    public boolean isMember(Long groupId, Long userId) {
+        return userId != null && contains(memberIds(groupId), userId);
+    }
+
+    public void checkMember(Long groupId, User user) {
+        if (!isMember(groupId, user.getId())) {
+            throw new IllegalStateException("User is not a member of this group");
+        }
+    }
+
+    /** Ascending member ids; shared with other callers, so never modify the array. */
+    long[] memberIds(Long groupId) {
+        long version = version(groupId);
+        Members members;
+        synchronized (entries) {
+            members = entries.get(groupId);
+        }
+        if (members != null && members.version() == version
+                && System.nanoTime() - members.loadedAtNanos() < ttlNanos) {
+            hits.increment();
+            return members.ids();
+        }
+        misses.increment();
+        // Loaded under the version read before the query: a change committing meanwhile makes it stale
+        long loadedAt = System.nanoTime();
+        long[] ids = jdbcTemplate.queryForList(LOAD_SQL, Long.class, groupId).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+        synchronized (entries) {
+            Members current = entries.get(groupId);
+            if (current == null || current.version() <= version) {
+                entries.put(groupId, new Members(version, ids, loadedAt));
+            }
+        }
+        return ids;
+    }
+
+    // Membership test on an array returned by memberIds
+    static boolean contains(long[] sortedIds, long userId) {
+        return Arrays.binarySearch(sortedIds, userId) >= 0;
+    }
+
+    /**
+     * Drops the group's member list once the current transaction commits, or immediately outside a
+     * transaction; bumping before commit would let a concurrent reader cache the old members again.
+     */
+    public void invalidate(Long groupId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(groupId);
+                }
+            });
+        } else {
+            bump(groupId);
+        }
+    }
+
+    // Membership changes made on any node, this one included; a second bump is harmless
+    @EventListener
+    public void onDomainEvent(DomainEventBroadcast broadcast) {
+        DomainEvent event = broadcast.event();
+        switch (event.type()) {
+            case MEMBER_ADDED, MEMBER_REMOVED -> bump(event.groupId());
+            case GROUP_DELETED -> forget(event.groupId());
+            default -> {
+            }
+        }
+    }
+
+    private long version(Long groupId) {
+        AtomicLong version = versions.get(groupId);
+        return version == null ? 0 : version.get();
+    }
+
+    private void bump(Long groupId) {
+        versions.computeIfAbsent(groupId, id -> new AtomicLong()).incrementAndGet();
+        synchronized (entries) {
+            entries.remove(groupId);
+        }
+    }
+
+    // A deleted group is never read again: drop its version too, not just its members
+    private void forget(Long groupId) {
+        versions.remove(groupId);
+        synchronized (entries) {
+            entries.remove(groupId);
+        }
+    }
+
+    private double size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.model.GroupPurge;
+import com.expensesplitter.repository.GroupPurgeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Removes the rows of deleted groups in the background, at most {@code app.purge.batchSize} rows per
+ * transaction, so deleting a group with years of history never holds long locks or one huge undo log.
+ * <p>
+ * Each chunk claims the purge's progress row with {@code FOR UPDATE SKIP LOCKED} and commits its
+ * deletes together with the advanced phase and row count: after a crash or restart the purge carries
+ * on where the last committed chunk left off, and several nodes never work on the same group.
+ */
+@Slf4j
+@Component
+public class GroupPurgeJob {
+
+    // Each statement deletes at most ? rows of the group; fewer than asked means the phase is done
+    private static final Map<GroupPurge.Phase, String> DELETE_SQL = new EnumMap<>(Map.of(
+            GroupPurge.Phase.EXPENSE_SPLITS, "delete from expense_splits where id in (select s.id from expense_splits s "
+                    + "join expenses e on e.id = s.expense_id where e.group_id = ? limit ?)",
+            GroupPurge.Phase.EXPENSE_ITEMS, "delete from expense_items where id in (select i.id from expense_items i "
+                    + "join expenses e on e.id = i.expense_id where e.group_id = ? limit ?)",
+            GroupPurge.Phase.EXPENSES, "delete from expenses where id in (select id from expenses where group_id = ? limit ?)",
+            GroupPurge.Phase.SETTLEMENTS, "delete from settlements where id in (select id from settlements where group_id = ? limit ?)",
+            GroupPurge.Phase.BALANCES, "delete from group_balances where id in (select id from group_balances where group_id = ? limit ?)",
+            GroupPurge.Phase.ROLLUPS, "delete from spending_rollups where id in (select id from spending_rollups where group_id = ? limit ?)",
+            GroupPurge.Phase.MEMBERS, "delete from group_members where group_id = ? and user_id in "
+                    + "(select user_id from group_members where group_id = ? limit ?)",
+            GroupPurge.Phase.GROUP, "delete from groups where id = ? and deleted_at is not null"));
+
+    private final GroupPurgeRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter deletedRows;
+
+    public GroupPurgeJob(GroupPurgeRepository repository,
+                         JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry registry,
+                         @Value("${app.purge.batchSize:1000}") int batchSize) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.deletedRows = Counter.builder("groups.purge.rows").register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.purge.pollIntervalMs:10000}", initialDelayString = "${app.purge.pollIntervalMs:10000}")
+    public void poll() {
+        long started = System.nanoTime();
+        long deleted = purgePending();
+        if (deleted > 0) {
+            log.info("Purged {} rows of deleted groups in {} ms", deleted, (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    /**
+     * Works through every unfinished purge, oldest first, and returns the number of rows deleted.
+     * Synchronized so the scheduler and a manual call on this node never interleave chunks.
+     */
+    public synchronized long purgePending() {
+        long deleted = 0;
+        Long chunk;
+        while ((chunk = transactionTemplate.execute(status -> purgeChunk())) != null) {
+            deleted += chunk;
+        }
+        return deleted;
+    }
+
+    // One chunk of the oldest claimable purge; null once nothing is left to claim
+    private Long purgeChunk() {
+        GroupPurge purge = repository.claimNext().orElse(null);
+        if (purge == null) return null;
+
+        Long groupId = purge.getGroupId();
+        GroupPurge.Phase phase = purge.getPhase();
+        int deleted = switch (phase) {
+            case MEMBERS -> jdbcTemplate.update(DELETE_SQL.get(phase), groupId, groupId, batchSize);
+            case GROUP -> jdbcTemplate.update(DELETE_SQL.get(phase), groupId);
+            default -> jdbcTemplate.update(DELETE_SQL.get(phase), groupId, batchSize);
+        };
+
+        Instant now = Instant.now();
+        purge.setDeletedRows(purge.getDeletedRows() + deleted);
+        purge.setUpdatedAt(now);
+        if (phase == GroupPurge.Phase.GROUP) {
+            purge.setCompletedAt(now);
+            log.info("Group {} purged, {} rows deleted", groupId, purge.getDeletedRows());
+        } else if (deleted < batchSize) {
+            purge.setPhase(GroupPurge.Phase.values()[phase.ordinal() + 1]);
+        }
+        deletedRows.increment(deleted);
+        return (long) deleted;
+    }
+}
@@ -1,32 +1,80 @@
 package com.expensesplitter.service;
 
+import com.expensesplitter.dto.BulkMembersRequest;
+import com.expensesplitter.dto.BulkMembersResultDTO;
 import com.expensesplitter.dto.CreateGroupRequest;
 import com.expensesplitter.dto.GroupDTO;
+import com.expensesplitter.dto.GroupPurgeDTO;
 import com.expensesplitter.model.Group;
+import com.expensesplitter.model.GroupPurge;
 import com.expensesplitter.model.User;
+import com.expensesplitter.repository.GroupPurgeRepository;
 import com.expensesplitter.repository.GroupRepository;
+import com.expensesplitter.repository.RecurringExpenseRepository;
 import com.expensesplitter.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class GroupService {
 
+    // One row per group the user created or belongs to, member ids aggregated in the database.
+    // The membership lookup is served by idx_group_members_user, the aggregation by the join table's primary key.
+    private static final String USER_GROUPS_SQL = """
+            select g.id, g.name, g.description, g.base_currency, g.created_by_id, c.name, g.created_at, g.updated_at,
+                   array_agg(gm.user_id order by gm.user_id)
+            from groups g
+            join users c on c.id = g.created_by_id
+            left join group_members gm on gm.group_id = g.id
+            where g.deleted_at is null
+              and (g.id in (select group_id from group_members where user_id = ?) or g.created_by_id = ?)
+            group by g.id, g.name, g.description, g.base_currency, g.created_by_id, c.name, g.created_at, g.updated_at
+            order by g.id
+            """;
+
+    private static final String MEMBER_IDS_SQL = "select user_id from group_members where group_id = ?";
+    // Rows per multi-row insert; one statement per chunk so its update count is exact, unlike batch
+    // counts, which pgjdbc reports as SUCCESS_NO_INFO once reWriteBatchedInserts rewrites the batch
+    private static final int INSERT_CHUNK = 1000;
+    private static final String REMOVE_MEMBER_SQL = "delete from group_members where group_id = ? and user_id = ?";
+
+    private record ResolvedUsers(List<Long> ids, List<Long> unknownIds, List<String> unknownEmails) {
+    }
+
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
+    private final SettlementCache settlementCache;
+    private final OutboxService outboxService;
+    private final FxRateService fxRateService;
+    private final RecurringExpenseRepository recurringExpenseRepository;
+    private final GroupMembershipIndex membershipIndex;
+    private final GroupPurgeRepository groupPurgeRepository;
+    private final JdbcTemplate jdbcTemplate;
 
     @Transactional
     public GroupDTO createGroup(CreateGroupRequest request, User creator) {
         Group group = new Group();
         group.setName(request.getName());
         group.setCreatedBy(creator);
+        group.setBaseCurrency(FxRates.normalize(request.getBaseCurrency(), fxRateService.defaultCurrency()));
 
         Set<User> members = new HashSet<>();
         members.add(creator); // Creator is automatically a member
@@ -34,26 +82,18 @@ public class GroupService {
         group.setMembers(members);
         group = groupRepository.save(group);
 
-        return toDTO(group);
+        return DtoMapper.toDTO(group);
     }
 
     public GroupDTO getGroupById(Long id) {
         Group group = groupRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + id));
-        return toDTO(group);
+        return DtoMapper.toDTO(group);
     }
 
+    /** A single query whatever the number of groups; no entities or member collections are loaded. */
     public List<GroupDTO> getUserGroups(User user) {
-        List<Group> createdGroups = groupRepository.findByCreatedBy(user);
-        List<Group> memberGroups = groupRepository.findByMembersContaining(user);
-
-        Set<Group> allGroups = new HashSet<>();
-        allGroups.addAll(createdGroups);
-        allGroups.addAll(memberGroups);
-
-        return allGroups.stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return jdbcTemplate.query(USER_GROUPS_SQL, (rs, rowNum) -> toDTO(rs), user.getId(), user.getId());
     }
 
     @Transactional
@@ -64,14 +104,19 @@ public class GroupService {
         if (!group.getCreatedBy().getId().equals(requester.getId())) {
             throw new IllegalStateException("Only group creator can add members");
         }
+        lockMembers(groupId);
 
         User member = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
 
-        group.getMembers().add(member);
+        if (group.getMembers().add(member)) {
+            outboxService.recordMembersAdded(groupId, List.of(userId));
+            membershipIndex.invalidate(groupId);
+        }
         group = groupRepository.save(group);
+        settlementCache.invalidate(groupId);
 
-        return toDTO(group);
+        return DtoMapper.toDTO(group);
     }
 
     @Transactional
@@ -82,6 +127,7 @@ public class GroupService {
         if (!group.getCreatedBy().getId().equals(requester.getId())) {
             throw new IllegalStateException("Only group creator can remove members");
         }
+        lockMembers(groupId);
 
         User member = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
@@ -90,32 +136,206 @@ public class GroupService {
             throw new IllegalStateException("Cannot remove group creator");
         }
 
-        group.getMembers().remove(member);
+        if (group.getMembers().remove(member)) {
+            outboxService.recordMembersRemoved(groupId, List.of(userId));
+            membershipIndex.invalidate(groupId);
+        }
         group = groupRepository.save(group);
+        settlementCache.invalidate(groupId);
+
+        return DtoMapper.toDTO(group);
+    }
+
+    /**
+     * Adds users given by id and/or email without loading the member entities: users are resolved in
+     * one query, current members read as plain ids under the group lock, and only the new ones inserted.
+     */
+    @Transactional
+    public BulkMembersResultDTO addMembers(Long groupId, BulkMembersRequest request, User requester) {
+        checkCreator(groupId, requester, "Only group creator can add members");
+        ResolvedUsers users = resolveUsers(request);
+        lockMembers(groupId);
+        Set<Long> existing = new HashSet<>(jdbcTemplate.queryForList(MEMBER_IDS_SQL, Long.class, groupId));
+
+        List<Long> added = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        for (Long userId : users.ids()) {
+            (existing.contains(userId) ? skipped : added).add(userId);
+        }
+        insertMembers(groupId, added);
+        membersChanged(groupId, added);
+        outboxService.recordMembersAdded(groupId, added);
+        return new BulkMembersResultDTO(added, List.of(), skipped, users.unknownIds(), users.unknownEmails());
+    }
+
+    /** Removes users given by id and/or email; the creator is always skipped. */
+    @Transactional
+    public BulkMembersResultDTO removeMembers(Long groupId, BulkMembersRequest request, User requester) {
+        Group group = checkCreator(groupId, requester, "Only group creator can remove members");
+        ResolvedUsers users = resolveUsers(request);
+        lockMembers(groupId);
+
+        List<Long> candidates = new ArrayList<>(users.ids().size());
+        List<Long> removed = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        for (Long userId : users.ids()) {
+            (userId.equals(group.getCreatedBy().getId()) ? skipped : candidates).add(userId);
+        }
+        int[] counts = jdbcTemplate.batchUpdate(REMOVE_MEMBER_SQL, memberRows(groupId, candidates));
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0 && counts[i] != 1) {
+                throw new IllegalStateException("Unexpected update count " + counts[i] + " removing a group member");
+            }
+            (counts[i] == 0 ? skipped : removed).add(candidates.get(i));
+        }
+        membersChanged(groupId, removed);
+        outboxService.recordMembersRemoved(groupId, removed);
+        return new BulkMembersResultDTO(List.of(), removed, skipped, users.unknownIds(), users.unknownEmails());
+    }
+
+    private Group checkCreator(Long groupId, User requester, String message) {
+        Group group = groupRepository.findById(groupId)
+                .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + groupId));
+        if (!group.getCreatedBy().getId().equals(requester.getId())) {
+            throw new IllegalStateException(message);
+        }
+        return group;
+    }
+
+    // Held until commit: membership changes of one group run one at a time, so a member list read
+    // afterwards stays current for the rest of the transaction
+    private void lockMembers(Long groupId) {
+        groupRepository.lockById(groupId)
+                .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + groupId));
+    }
+
+    private void insertMembers(Long groupId, List<Long> userIds) {
+        for (int from = 0; from < userIds.size(); from += INSERT_CHUNK) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + INSERT_CHUNK, userIds.size()));
+            StringBuilder sql = new StringBuilder("insert into group_members (group_id, user_id) values ");
+            Object[] args = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+                args[2 * i] = groupId;
+                args[2 * i + 1] = chunk.get(i);
+            }
+            int inserted = jdbcTemplate.update(sql.toString(), args);
+            if (inserted != chunk.size()) {
+                throw new IllegalStateException("Inserted " + inserted + " of " + chunk.size() + " group members");
+            }
+        }
+    }
+
+    // Ids and emails resolved in a single query, de-duplicated in request order
+    private ResolvedUsers resolveUsers(BulkMembersRequest request) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (request.getUserIds() != null) {
+            request.getUserIds().stream().filter(Objects::nonNull).forEach(ids::add);
+        }
+        Set<String> emails = new LinkedHashSet<>();
+        if (request.getEmails() != null) {
+            request.getEmails().stream().filter(Objects::nonNull).map(String::trim)
+                    .filter(email -> !email.isEmpty()).forEach(emails::add);
+        }
+        if (ids.isEmpty() && emails.isEmpty()) {
+            throw new IllegalArgumentException("Provide at least one user id or email");
+        }
+
+        List<User> found = userRepository.findByIdInOrEmailIn(ids, emails);
+        Map<Long, User> byId = found.stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<String, User> byEmail = found.stream().collect(Collectors.toMap(User::getEmail, Function.identity()));
+
+        Set<Long> resolved = new LinkedHashSet<>();
+        List<Long> unknownIds = new ArrayList<>();
+        for (Long id : ids) {
+            if (byId.containsKey(id)) resolved.add(id);
+            else unknownIds.add(id);
+        }
+        List<String> unknownEmails = new ArrayList<>();
+        for (String email : emails) {
+            User user = byEmail.get(email);
+            if (user != null) resolved.add(user.getId());
+            else unknownEmails.add(email);
+        }
+        return new ResolvedUsers(new ArrayList<>(resolved), unknownIds, unknownEmails);
+    }
 
-        return toDTO(group);
+    private static List<Object[]> memberRows(Long groupId, List<Long> userIds) {
+        List<Object[]> rows = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            rows.add(new Object[]{groupId, userId});
+        }
+        return rows;
     }
 
-    private GroupDTO toDTO(Group group) {
+    // group_members was written behind Hibernate's back: drop cached state that depends on it
+    private void membersChanged(Long groupId, List<Long> userIds) {
+        if (userIds.isEmpty()) return;
+        groupRepository.touch(groupId, LocalDateTime.now());
+        settlementCache.invalidate(groupId);
+        membershipIndex.invalidate(groupId);
+    }
+
+    private static GroupDTO toDTO(ResultSet rs) throws SQLException {
         GroupDTO dto = new GroupDTO();
-        dto.setId(group.getId());
-        dto.setName(group.getName());
-        dto.setDescription(group.getDescription());
-        dto.setCreatedById(group.getCreatedBy().getId());
-        dto.setCreatedByName(group.getCreatedBy().getName());
-        dto.setMemberIds(group.getMembers().stream()
-                .map(User::getId)
-                .collect(Collectors.toSet()));
-        dto.setCreatedAt(group.getCreatedAt());
-        dto.setUpdatedAt(group.getUpdatedAt());
+        dto.setId(rs.getLong(1));
+        dto.setName(rs.getString(2));
+        dto.setDescription(rs.getString(3));
+        dto.setBaseCurrency(rs.getString(4));
+        dto.setCreatedById(rs.getLong(5));
+        dto.setCreatedByName(rs.getString(6));
+        dto.setCreatedAt(rs.getObject(7, LocalDateTime.class));
+        dto.setUpdatedAt(rs.getObject(8, LocalDateTime.class));
+        Set<Long> memberIds = new LinkedHashSet<>();
+        Array members = rs.getArray(9);
+        if (members != null) {
+            for (Object id : (Object[]) members.getArray()) {
+                if (id != null) memberIds.add(((Number) id).longValue()); // null from a group without members
+            }
+            members.free();
+        }
+        dto.setMemberIds(memberIds);
         return dto;
     }
 
-    public void deleteGroup(Long groupId) {
-        if (!groupRepository.existsById(groupId)) {
-            throw new IllegalArgumentException("Group not found");
+    /**
+     * Marks the group deleted and queues its rows for {@link GroupPurgeJob}; from commit on, every read
+     * treats the group as gone. Only the recurring templates are removed here, so none fires again.
+     */
+    @Transactional
+    public GroupPurgeDTO deleteGroup(Long groupId, User requester) {
+        checkCreator(groupId, requester, "Only group creator can delete the group");
+        // Before the group lock: the scheduler locks a template before its group, never the other way round
+        recurringExpenseRepository.deleteByGroupId(groupId);
+        outboxService.recordGroupDeleted(groupId);
+        Instant now = Instant.now();
+        if (groupRepository.markDeleted(groupId, now) == 0) {
+            throw new IllegalArgumentException("Group not found with id: " + groupId);
         }
-        groupRepository.deleteById(groupId);
+
+        GroupPurge purge = new GroupPurge();
+        purge.setGroupId(groupId);
+        purge.setRequestedById(requester.getId());
+        purge.setRequestedAt(now);
+        purge.setUpdatedAt(now);
+        purge = groupPurgeRepository.save(purge);
+        settlementCache.invalidate(groupId);
+        membershipIndex.invalidate(groupId);
+        return toDTO(purge);
+    }
+
+    /** Progress of a deletion, visible to the user who requested it. */
+    @Transactional(readOnly = true)
+    public GroupPurgeDTO getDeletion(Long groupId, User requester) {
+        GroupPurge purge = groupPurgeRepository.findById(groupId)
+                .filter(p -> p.getRequestedById().equals(requester.getId()))
+                .orElseThrow(() -> new IllegalArgumentException("No deletion found for group with id: " + groupId));
+        return toDTO(purge);
+    }
+
+    private static GroupPurgeDTO toDTO(GroupPurge purge) {
+        return new GroupPurgeDTO(purge.getGroupId(), purge.getPhase().name(), purge.getDeletedRows(),
+                purge.getCompletedAt() != null, purge.getRequestedAt(), purge.getUpdatedAt(), purge.getCompletedAt());
     }
 }
 
@@ -0,0 +1,24 @@
+package com.expensesplitter.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs an action at most once per (scope, key) while the key is remembered, and hands the first
+ * result to every retry. Concurrent requests with the same key wait for the first one instead of
+ * running the action themselves.
+ * <p>
+ * Selected with {@code app.idempotency.store}: {@code memory} (default, single node) or {@code jdbc}
+ * (shared table, for several nodes behind one database).
+ */
+public interface IdempotencyStore {
+
+    record Result<T>(T value, boolean replayed) {
+    }
+
+    /**
+     * @param scope   namespace for the key, e.g. the endpoint and the calling user
+     * @param request the request body; a key reused with a different body is rejected
+     * @throws IllegalArgumentException if the key was already used for a different request
+     */
+    <T> Result<T> execute(String scope, String key, Object request, Class<T> type, Supplier<T> action);
+}
@@ -0,0 +1,104 @@
+package com.expensesplitter.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Per-process idempotency store: a bounded map of futures in insertion order. Entries expire after
+ * {@code app.idempotency.ttl}; past {@code app.idempotency.maxEntries} the oldest finished entry is dropped.
+ * In-flight entries are never evicted, so a duplicate can never start while the first attempt runs.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private record Entry(String fingerprint, CompletableFuture<Object> result, long expiresAtNanos) {
+    }
+
+    private final Map<String, Entry> entries;
+    private final long ttlNanos;
+    private final long waitTimeoutNanos;
+
+    public InMemoryIdempotencyStore(@Value("${app.idempotency.maxEntries:10000}") int maxEntries,
+                                    @Value("${app.idempotency.ttl:PT24H}") Duration ttl,
+                                    @Value("${app.idempotency.waitTimeout:PT30S}") Duration waitTimeout) {
+        this.ttlNanos = ttl.toNanos();
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries && eldest.getValue().result().isDone();
+            }
+        };
+    }
+
+    @Override
+    public <T> Result<T> execute(String scope, String key, Object request, Class<T> type, Supplier<T> action) {
+        String id = scope + ":" + key;
+        String fingerprint = RequestFingerprint.of(request);
+        while (true) {
+            Entry entry;
+            boolean owner = false;
+            synchronized (entries) {
+                purgeExpired(System.nanoTime());
+                entry = entries.get(id);
+                if (entry == null) {
+                    entry = new Entry(fingerprint, new CompletableFuture<>(), System.nanoTime() + ttlNanos);
+                    entries.put(id, entry);
+                    owner = true;
+                }
+            }
+            if (!entry.fingerprint().equals(fingerprint)) {
+                throw new IllegalArgumentException("Idempotency-Key was already used for a different request");
+            }
+
+            if (owner) {
+                try {
+                    T value = action.get();
+                    entry.result().complete(value);
+                    return new Result<>(value, false);
+                } catch (RuntimeException | Error e) {
+                    // Forget failed attempts so the client's next retry runs the action again
+                    synchronized (entries) {
+                        entries.remove(id, entry);
+                    }
+                    entry.result().completeExceptionally(e);
+                    throw e;
+                }
+            }
+
+            try {
+                return new Result<>(type.cast(entry.result().get(waitTimeoutNanos, TimeUnit.NANOSECONDS)), true);
+            } catch (ExecutionException e) {
+                // The attempt we waited on failed and was forgotten; loop and run it ourselves
+            } catch (TimeoutException e) {
+                throw new ConcurrencyFailureException("A request with this Idempotency-Key is still in progress");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConcurrencyFailureException("Interrupted while waiting for a request with the same Idempotency-Key");
+            }
+        }
+    }
+
+    // Insertion order with a fixed TTL is expiry order, so only the head needs checking
+    private void purgeExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.expiresAtNanos() - now > 0 || !entry.result().isDone()) return;
+            iterator.remove();
+        }
+    }
+}
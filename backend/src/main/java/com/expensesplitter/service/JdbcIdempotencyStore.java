@@ -0,0 +1,120 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.model.IdempotencyRecord;
+import com.expensesplitter.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency store shared by every node through the {@code idempotency_keys} table.
+ * <p>
+ * The key is claimed with a plain insert in the same transaction as the action and its stored
+ * response. A concurrent request with the same key blocks on the uncommitted row's primary key until
+ * the first transaction ends: on commit its insert fails and it replays the stored response, on
+ * rollback its insert goes through and it runs the action itself.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+
+    public JdbcIdempotencyStore(IdempotencyRecordRepository repository,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.idempotency.ttl:PT24H}") Duration ttl) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+    }
+
+    @Override
+    public <T> Result<T> execute(String scope, String key, Object request, Class<T> type, Supplier<T> action) {
+        String id = scope + ":" + key;
+        String fingerprint = RequestFingerprint.of(request);
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Instant now = Instant.now();
+            try {
+                return transactionTemplate.execute(status -> {
+                    claim(id, fingerprint, now);
+                    T value = action.get();
+                    repository.complete(id, write(value));
+                    return new Result<>(value, false);
+                });
+            } catch (KeyTakenException e) {
+                Optional<IdempotencyRecord> existing = repository.findById(id);
+                if (existing.isEmpty()) continue; // the holder rolled back after our insert failed
+                IdempotencyRecord record = existing.get();
+                if (record.getExpiresAt().isBefore(now)) {
+                    transactionTemplate.executeWithoutResult(status -> repository.deleteIfExpired(id, now));
+                    continue;
+                }
+                if (!record.getFingerprint().equals(fingerprint)) {
+                    throw new IllegalArgumentException("Idempotency-Key was already used for a different request");
+                }
+                return new Result<>(read(record.getResponse(), type), true);
+            }
+        }
+        throw new ConcurrencyFailureException("Could not claim Idempotency-Key, please retry");
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purgeIntervalMs:600000}")
+    public void purgeExpired() {
+        Integer purged = transactionTemplate.execute(status -> repository.deleteExpired(Instant.now()));
+        if (purged != null && purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private void claim(String id, String fingerprint, Instant now) {
+        try {
+            repository.claim(id, fingerprint, now, now.plus(ttl));
+        } catch (DataIntegrityViolationException e) {
+            throw new KeyTakenException();
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store idempotent response", e);
+        }
+    }
+
+    private <T> T read(String response, Class<T> type) {
+        try {
+            return objectMapper.readValue(response, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored idempotent response", e);
+        }
+    }
+
+    // Distinguishes a lost claim from integrity errors raised by the action itself
+    private static final class KeyTakenException extends RuntimeException {
+        private KeyTakenException() {
+            super(null, null, false, false);
+        }
+    }
+}
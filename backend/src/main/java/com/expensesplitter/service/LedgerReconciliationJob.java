@@ -0,0 +1,53 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.LedgerDriftDTO;
+import com.expensesplitter.repository.ExpenseRepository;
+import com.expensesplitter.repository.GroupBalanceRepository;
+import com.expensesplitter.repository.GroupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Periodically rebuilds every group's balance ledger from the raw splits and reports drift.
+ * Each group is reconciled in its own transaction so one large group never blocks the rest.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LedgerReconciliationJob {
+
+    private final GroupRepository groupRepository;
+    private final BalanceService balanceService;
+    private final GroupBalanceRepository groupBalanceRepository;
+    private final ExpenseRepository expenseRepository;
+
+    // Databases that predate the ledger start with an empty table; backfill it once
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (groupBalanceRepository.count() == 0 && expenseRepository.count() > 0) {
+            log.info("Balance ledger is empty, rebuilding it from expense splits");
+            run();
+        }
+    }
+
+    @Scheduled(cron = "${app.ledger.reconcileCron:0 0 3 * * *}")
+    public void run() {
+        List<LedgerDriftDTO> drift = reconcileAll();
+        log.info("Ledger reconciliation finished, {} drifted balance(s) corrected", drift.size());
+    }
+
+    public List<LedgerDriftDTO> reconcileAll() {
+        List<LedgerDriftDTO> drift = new ArrayList<>();
+        for (Long groupId : groupRepository.findAllIds()) {
+            drift.addAll(balanceService.reconcile(groupId));
+        }
+        return drift;
+    }
+}
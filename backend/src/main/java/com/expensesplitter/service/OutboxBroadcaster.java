@@ -0,0 +1,116 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.model.OutboxEvent;
+import com.expensesplitter.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Replays {@code outbox_events} on every node as {@link DomainEventBroadcast}s, for the node-local caches
+ * that {@link OutboxDispatcher}'s once-per-cluster delivery cannot reach.
+ * <p>
+ * Each node keeps its own cursor over the event ids, published or not, starting {@code app.outbox.gapTimeout}
+ * back on boot. Ids come from a sequence, so a transaction can commit a lower id after a higher one was
+ * read; skipped ids are re-read each poll until they show up or {@code app.outbox.gapTimeout} passes
+ * (rolled back transactions leave ids that never do).
+ */
+@Slf4j
+@Component
+public class OutboxBroadcaster {
+
+    private static final int MAX_BATCHES_PER_POLL = 10;
+    // A wider jump than this is not worth tracking id by id (a sequence reset, not in-flight commits)
+    private static final int MAX_GAP = 10_000;
+
+    private final OutboxEventRepository repository;
+    private final ApplicationEventPublisher publisher;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final Duration gapTimeout;
+
+    private long cursor = -1;
+    private final Map<Long, Instant> gaps = new TreeMap<>();
+    private volatile int gapCount;
+
+    public OutboxBroadcaster(OutboxEventRepository repository,
+                             ApplicationEventPublisher publisher,
+                             ObjectMapper objectMapper,
+                             MeterRegistry registry,
+                             @Value("${app.outbox.batchSize:500}") int batchSize,
+                             @Value("${app.outbox.gapTimeout:PT5M}") Duration gapTimeout) {
+        this.repository = repository;
+        this.publisher = publisher;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+        this.gapTimeout = gapTimeout;
+        Gauge.builder("outbox.broadcast.gaps", this, broadcaster -> broadcaster.gapCount)
+                .description("Event ids this node is still waiting to see committed").register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.broadcastIntervalMs:500}",
+            initialDelayString = "${app.outbox.broadcastIntervalMs:500}")
+    public void poll() {
+        int batches = 0;
+        while (broadcastPending() == batchSize && ++batches < MAX_BATCHES_PER_POLL) {
+            log.debug("Outbox broadcast backlog exceeds one batch, reading again");
+        }
+    }
+
+    /** Broadcasts the events committed since the last call and returns how many new ids past the cursor it read. */
+    public synchronized int broadcastPending() {
+        Instant now = Instant.now();
+        if (cursor < 0) {
+            cursor = repository.maxIdCreatedBefore(now.minus(gapTimeout));
+        }
+
+        if (!gaps.isEmpty()) {
+            List<OutboxEvent> late = new ArrayList<>(repository.findAllById(gaps.keySet()));
+            late.sort(Comparator.comparing(OutboxEvent::getId));
+            for (OutboxEvent event : late) {
+                gaps.remove(event.getId());
+                broadcast(event);
+            }
+            gaps.values().removeIf(since -> since.isBefore(now.minus(gapTimeout)));
+        }
+
+        List<OutboxEvent> batch = repository.findAfter(cursor, PageRequest.of(0, batchSize));
+        for (OutboxEvent event : batch) {
+            long skipped = event.getId() - cursor - 1;
+            if (skipped > MAX_GAP) {
+                log.warn("Outbox ids jumped from {} to {}, not waiting for the ones in between", cursor, event.getId());
+            } else {
+                for (long id = cursor + 1; id < event.getId(); id++) {
+                    gaps.put(id, now);
+                }
+            }
+            cursor = event.getId();
+            broadcast(event);
+        }
+        gapCount = gaps.size();
+        return batch.size();
+    }
+
+    private void broadcast(OutboxEvent event) {
+        try {
+            publisher.publishEvent(new DomainEventBroadcast(DomainEvent.of(event, objectMapper)));
+        } catch (RuntimeException e) {
+            log.warn("Broadcast of outbox event {} ({}) for group {} failed", event.getId(), event.getType(),
+                    event.getGroupId(), e);
+        }
+    }
+}
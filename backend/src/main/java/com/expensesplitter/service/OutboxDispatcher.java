@@ -0,0 +1,189 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.model.OutboxEvent;
+import com.expensesplitter.model.OutboxLease;
+import com.expensesplitter.repository.OutboxEventRepository;
+import com.expensesplitter.repository.OutboxLeaseRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains {@code outbox_events} in id order and publishes each one as a {@link DomainEvent}, for
+ * listeners with side effects that must happen once across the cluster.
+ * <p>
+ * Only the node holding the {@code outbox_leases} row (renewed on every run, taken over once it lapses
+ * after {@code app.outbox.lease}) delivers, so nodes never publish the same batch side by side.
+ * Listeners run synchronously outside any transaction; an event is marked published only after they
+ * all return, so a crash in between, or a run outlasting the lease, redelivers it. When a listener
+ * throws, the rest of that group's events wait for the next run to keep the group in order; other
+ * groups carry on. An event that keeps failing is parked after {@code app.outbox.maxAttempts} so it
+ * cannot stall its group forever.
+ * <p>
+ * Per-node caches must not listen here: they would only hear about the events this node happens to
+ * deliver. They subscribe to {@link DomainEventBroadcast} from {@link OutboxBroadcaster} instead.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private static final int MAX_BATCHES_PER_POLL = 10;
+    private static final String LEASE = "outbox-dispatcher";
+
+    private final OutboxEventRepository repository;
+    private final OutboxLeaseRepository leaseRepository;
+    private final ApplicationEventPublisher publisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retention;
+    private final Duration lease;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestPendingEpochMs = new AtomicLong();
+    private final Timer delay;
+    private final Counter published;
+    private final Counter failed;
+
+    public OutboxDispatcher(OutboxEventRepository repository,
+                            OutboxLeaseRepository leaseRepository,
+                            ApplicationEventPublisher publisher,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry registry,
+                            @Value("${app.outbox.batchSize:500}") int batchSize,
+                            @Value("${app.outbox.maxAttempts:10}") int maxAttempts,
+                            @Value("${app.outbox.retention:PT24H}") Duration retention,
+                            @Value("${app.outbox.lease:PT30S}") Duration lease) {
+        this.repository = repository;
+        this.leaseRepository = leaseRepository;
+        this.publisher = publisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retention = retention;
+        this.lease = lease;
+
+        Gauge.builder("outbox.pending", pending, AtomicLong::doubleValue).register(registry);
+        Gauge.builder("outbox.lag", this, OutboxDispatcher::lagSeconds)
+                .baseUnit("seconds").description("Age of the oldest unpublished event").register(registry);
+        this.delay = Timer.builder("outbox.delivery.delay")
+                .description("Time from commit to publication").register(registry);
+        this.published = Counter.builder("outbox.events").tag("result", "published").register(registry);
+        this.failed = Counter.builder("outbox.events").tag("result", "failed").register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.pollIntervalMs:500}", initialDelayString = "${app.outbox.pollIntervalMs:500}")
+    public void poll() {
+        // Keep draining while batches come back full, without holding the scheduler thread forever
+        int batches = 0;
+        while (dispatchPending() == batchSize && ++batches < MAX_BATCHES_PER_POLL) {
+            log.debug("Outbox backlog exceeds one batch, draining again");
+        }
+    }
+
+    /**
+     * Publishes one batch and returns how many pending events it read; 0 while another node holds the lease.
+     * Synchronized so the scheduler and a manual call never deliver the same batch twice.
+     */
+    public synchronized int dispatchPending() {
+        if (!acquireLease()) return 0;
+        List<OutboxEvent> batch = repository.findPending(maxAttempts, PageRequest.of(0, batchSize));
+        updateBacklog(batch);
+        if (batch.isEmpty()) return 0;
+
+        Set<Long> blockedGroups = new HashSet<>();
+        List<Long> delivered = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            if (blockedGroups.contains(event.getGroupId())) continue;
+            try {
+                publisher.publishEvent(DomainEvent.of(event, objectMapper));
+                delivered.add(event.getId());
+                delay.record(Duration.between(event.getCreatedAt(), Instant.now()));
+            } catch (RuntimeException e) {
+                blockedGroups.add(event.getGroupId());
+                failed.increment();
+                if (event.getAttempts() + 1 >= maxAttempts) {
+                    log.error("Outbox event {} ({}) for group {} failed {} times and is parked",
+                            event.getId(), event.getType(), event.getGroupId(), maxAttempts, e);
+                } else {
+                    log.warn("Outbox event {} ({}) for group {} failed, will retry",
+                            event.getId(), event.getType(), event.getGroupId(), e);
+                }
+                transactionTemplate.executeWithoutResult(status ->
+                        repository.recordFailure(event.getId(), truncate(String.valueOf(e.getMessage()))));
+            }
+        }
+
+        if (!delivered.isEmpty()) {
+            Instant now = Instant.now();
+            transactionTemplate.executeWithoutResult(status -> repository.markPublished(delivered, now));
+            published.increment(delivered.size());
+        }
+        return batch.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.purgeIntervalMs:600000}")
+    public void purgePublished() {
+        Integer purged = transactionTemplate.execute(status ->
+                repository.deletePublishedBefore(Instant.now().minus(retention)));
+        if (purged != null && purged > 0) {
+            log.debug("Purged {} published outbox events", purged);
+        }
+    }
+
+    private boolean acquireLease() {
+        Instant now = Instant.now();
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (leaseRepository.acquire(LEASE, nodeId, now, now.plus(lease)) == 1) return true;
+                if (leaseRepository.existsById(LEASE)) return false;
+                OutboxLease first = new OutboxLease();
+                first.setName(LEASE);
+                first.setOwner(nodeId);
+                first.setExpiresAt(now.plus(lease));
+                leaseRepository.saveAndFlush(first);
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            return false; // another node created the lease row first
+        }
+    }
+
+    private void updateBacklog(List<OutboxEvent> batch) {
+        pending.set(batch.size() < batchSize ? batch.size() : repository.countPending(maxAttempts));
+        oldestPendingEpochMs.set(batch.isEmpty() ? 0 : batch.get(0).getCreatedAt().toEpochMilli());
+    }
+
+    private double lagSeconds() {
+        long oldest = oldestPendingEpochMs.get();
+        return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
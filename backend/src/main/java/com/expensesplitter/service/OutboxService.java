@@ -0,0 +1,123 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.model.Expense;
+import com.expensesplitter.model.ExpenseSplit;
+import com.expensesplitter.model.OutboxEvent;
+import com.expensesplitter.repository.GroupRepository;
+import com.expensesplitter.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes outbox events inside the caller's transaction, so an event exists if and only if the change
+ * it describes committed.
+ * <p>
+ * An event takes its id with the group row locked ({@code select ... for update}), which keeps id order
+ * equal to commit order within a group. That lock serializes a group's writers until commit, but it is
+ * not an extra one: every writer that records an event has already taken it for the change itself
+ * (ledger deltas in {@link BalanceService}, member changes and deletion in {@link GroupService}), so
+ * here it is re-entered rather than waited for. {@code outbox.group.lock} times this acquisition; a
+ * wait showing up there means a new caller records an event before locking its group.
+ */
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final GroupRepository groupRepository;
+    private final ObjectMapper objectMapper;
+    private final Timer groupLock;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository,
+                         GroupRepository groupRepository,
+                         ObjectMapper objectMapper,
+                         MeterRegistry registry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.groupRepository = groupRepository;
+        this.objectMapper = objectMapper;
+        this.groupLock = Timer.builder("outbox.group.lock")
+                .description("Time spent acquiring the group row lock when recording an event").register(registry);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpensesCreated(Long groupId, Collection<Expense> expenses) {
+        if (expenses.isEmpty()) return;
+        List<Map<String, Object>> items = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("expenseId", expense.getId());
+            item.put("description", expense.getDescription());
+            item.put("amount", expense.getAmount());
+            item.put("paidById", expense.getPaidBy().getId());
+            item.put("createdAt", expense.getCreatedAt());
+            items.add(item);
+        }
+        record(groupId, OutboxEvent.Type.EXPENSES_CREATED, Map.of("expenses", items));
+    }
+
+    /** One event per group, listing that group's split ids. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSplitsPaid(Long userId, Collection<ExpenseSplit> splits) {
+        Map<Long, List<Long>> splitIdsByGroup = new TreeMap<>();
+        for (ExpenseSplit split : splits) {
+            splitIdsByGroup.computeIfAbsent(split.getExpense().getGroup().getId(), id -> new ArrayList<>())
+                    .add(split.getId());
+        }
+        splitIdsByGroup.forEach((groupId, splitIds) ->
+                record(groupId, OutboxEvent.Type.SPLITS_PAID, Map.of("userId", userId, "splitIds", splitIds)));
+    }
+
+    /** One event per call, listing every added user id. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordMembersAdded(Long groupId, Collection<Long> userIds) {
+        if (userIds.isEmpty()) return;
+        record(groupId, OutboxEvent.Type.MEMBER_ADDED, Map.of("userIds", userIds));
+    }
+
+    /** One event per call, listing every removed user id. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordMembersRemoved(Long groupId, Collection<Long> userIds) {
+        if (userIds.isEmpty()) return;
+        record(groupId, OutboxEvent.Type.MEMBER_REMOVED, Map.of("userIds", userIds));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordGroupDeleted(Long groupId) {
+        record(groupId, OutboxEvent.Type.GROUP_DELETED, Map.of());
+    }
+
+    private void record(Long groupId, OutboxEvent.Type type, Object payload) {
+        // The native lock query flushes the session anyway; flushing first keeps that out of the timer
+        outboxEventRepository.flush();
+        // Held until commit: the next event of this group can only take its id after this one is visible
+        groupLock.record(() -> groupRepository.lockById(groupId))
+                .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + groupId));
+
+        OutboxEvent event = new OutboxEvent();
+        event.setGroupId(groupId);
+        event.setType(type);
+        event.setPayload(write(payload));
+        event.setCreatedAt(Instant.now());
+        outboxEventRepository.save(event);
+    }
+
+    private String write(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox event", e);
+        }
+    }
+}
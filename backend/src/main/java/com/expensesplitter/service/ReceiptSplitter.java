@@ -0,0 +1,107 @@
+package com.expensesplitter.service;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Turns an itemized receipt into exact per-person amounts in minor units (cents).
+ * <p>
+ * Assigned items go to their assignee, shared items are divided evenly among all participants, and the
+ * extra (tax + tip) is spread in proportion to each participant's item subtotal. Each participant's
+ * share is one exact fraction of the receipt total, rounded once with the largest-remainder method:
+ * everyone gets the floor of their share and the leftover cents go to the largest remainders, ties to
+ * the lower user id. Shares always add up to the total, and the result depends only on the inputs.
+ * <p>
+ * Work is linear in the number of items plus {@code O(p log p)} in the number of participants.
+ */
+public final class ReceiptSplitter {
+
+    /** {@code assignedTo} value for an item shared by all participants. */
+    public static final long SHARED = -1;
+
+    private ReceiptSplitter() {
+    }
+
+    /**
+     * @param participants user ids, ascending and distinct; must include every assignee
+     * @param itemCents    item amounts in cents, all positive
+     * @param assignedTo   per item the assignee's user id, or {@link #SHARED}
+     * @param itemCount    number of items to read from the two item arrays
+     * @param extraCents   tax plus tip in cents, spread proportionally
+     * @return each participant's share in cents, aligned with {@code participants}
+     */
+    public static long[] split(long[] participants, long[] itemCents, long[] assignedTo, int itemCount,
+                               long extraCents) {
+        int n = participants.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("A receipt needs at least one participant");
+        }
+        if (extraCents < 0) {
+            throw new IllegalArgumentException("Tax and tip cannot be negative");
+        }
+
+        long[] assigned = new long[n];
+        long shared = 0;
+        long subtotal = 0;
+        try {
+            for (int i = 0; i < itemCount; i++) {
+                long cents = itemCents[i];
+                if (cents <= 0) {
+                    throw new IllegalArgumentException("Item amounts must be positive");
+                }
+                subtotal = Math.addExact(subtotal, cents);
+                if (assignedTo[i] == SHARED) {
+                    shared += cents;
+                } else {
+                    int index = Arrays.binarySearch(participants, assignedTo[i]);
+                    if (index < 0) {
+                        throw new IllegalArgumentException("Item assigned to non-participant " + assignedTo[i]);
+                    }
+                    assigned[index] += cents;
+                }
+            }
+            if (subtotal == 0) {
+                throw new IllegalArgumentException("A receipt needs at least one item");
+            }
+
+            // Exact share of participant u is total * weight[u] / denominator, with
+            // weight[u] = assigned[u] * n + shared (the subtotal share scaled by n to stay integral)
+            long total = Math.addExact(subtotal, extraCents);
+            long denominator = Math.multiplyExact(subtotal, n);
+            long[] shares = new long[n];
+            long[] remainders = new long[n];
+            long allocated = 0;
+            for (int u = 0; u < n; u++) {
+                long weight = Math.addExact(Math.multiplyExact(assigned[u], n), shared);
+                long high = Math.multiplyHigh(total, weight);
+                long low = total * weight;
+                if (high == 0 && low >= 0) {
+                    shares[u] = low / denominator;
+                    remainders[u] = low % denominator;
+                } else {
+                    BigInteger[] qr = BigInteger.valueOf(total).multiply(BigInteger.valueOf(weight))
+                            .divideAndRemainder(BigInteger.valueOf(denominator));
+                    shares[u] = qr[0].longValueExact();
+                    remainders[u] = qr[1].longValueExact();
+                }
+                allocated += shares[u];
+            }
+
+            int leftover = (int) (total - allocated); // < n, one cent per rounded-down share at most
+            if (leftover > 0) {
+                Integer[] order = new Integer[n];
+                for (int u = 0; u < n; u++) order[u] = u;
+                // participants are ascending, so the index breaks ties by lower user id
+                Arrays.sort(order, (a, b) -> remainders[a] != remainders[b]
+                        ? Long.compare(remainders[b], remainders[a])
+                        : Integer.compare(a, b));
+                for (int k = 0; k < leftover; k++) {
+                    shares[order[k]]++;
+                }
+            }
+            return shares;
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Receipt amounts are too large");
+        }
+    }
+}
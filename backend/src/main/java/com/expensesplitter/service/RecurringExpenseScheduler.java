@@ -0,0 +1,203 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.model.Expense;
+import com.expensesplitter.model.Group;
+import com.expensesplitter.model.RecurringExpense;
+import com.expensesplitter.model.User;
+import com.expensesplitter.repository.ExpenseRepository;
+import com.expensesplitter.repository.GroupRepository;
+import com.expensesplitter.repository.RecurringExpenseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Turns due {@link RecurringExpense} templates into ordinary expenses.
+ * <p>
+ * Templates are claimed {@code app.recurring.batchSize} at a time with {@code FOR UPDATE SKIP LOCKED}
+ * and each batch commits its expenses, ledger, rollups and outbox events together with the advanced
+ * {@code nextRunAt}. A crash therefore never skips or repeats an occurrence, and several nodes can
+ * share the work. Groups are written in id order and hold their locks for one short batch only, so
+ * interactive requests are never queued behind a whole run.
+ * <p>
+ * After downtime a template catches up at most {@code app.recurring.maxCatchUp} missed occurrences,
+ * oldest first, and skips the rest. A template that no longer validates (a split user left the group,
+ * a rate is missing) is paused with the reason in {@code lastError}.
+ */
+@Slf4j
+@Component
+public class RecurringExpenseScheduler {
+
+    private final RecurringExpenseRepository repository;
+    private final GroupRepository groupRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseService expenseService;
+    private final BalanceService balanceService;
+    private final SpendingRollupService spendingRollupService;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxCatchUp;
+
+    private final Counter created;
+    private final Counter paused;
+
+    public RecurringExpenseScheduler(RecurringExpenseRepository repository,
+                                     GroupRepository groupRepository,
+                                     ExpenseRepository expenseRepository,
+                                     ExpenseService expenseService,
+                                     BalanceService balanceService,
+                                     SpendingRollupService spendingRollupService,
+                                     OutboxService outboxService,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry registry,
+                                     @Value("${app.recurring.batchSize:200}") int batchSize,
+                                     @Value("${app.recurring.maxCatchUp:3}") int maxCatchUp) {
+        this.repository = repository;
+        this.groupRepository = groupRepository;
+        this.expenseRepository = expenseRepository;
+        this.expenseService = expenseService;
+        this.balanceService = balanceService;
+        this.spendingRollupService = spendingRollupService;
+        this.outboxService = outboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxCatchUp = Math.max(1, maxCatchUp);
+
+        this.created = Counter.builder("recurring.expenses").tag("result", "created").register(registry);
+        this.paused = Counter.builder("recurring.expenses").tag("result", "paused").register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.recurring.pollIntervalMs:60000}", initialDelayString = "${app.recurring.pollIntervalMs:60000}")
+    public void poll() {
+        long started = System.nanoTime();
+        int generated = runDue(Instant.now());
+        if (generated > 0) {
+            log.info("Generated {} recurring expenses in {} ms", generated, (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    /**
+     * Generates every occurrence due at {@code now} and returns how many expenses were created.
+     * Synchronized so the scheduler and a manual call on this node never claim batches side by side.
+     */
+    public synchronized int runDue(Instant now) {
+        int generated = 0;
+        while (true) {
+            List<Long> claimed = new ArrayList<>(batchSize);
+            try {
+                generated += transactionTemplate.execute(status -> generate(repository.claimDue(now, batchSize), claimed, now));
+            } catch (RuntimeException e) {
+                if (claimed.isEmpty()) throw e;
+                // One bad template must not hold back the rest of its batch
+                log.warn("Recurring expense batch of {} templates failed, retrying them one at a time", claimed.size(), e);
+                for (Long id : claimed) {
+                    generated += generateOne(id, now);
+                }
+            }
+            if (claimed.size() < batchSize) return generated;
+        }
+    }
+
+    private int generateOne(Long id, Instant now) {
+        try {
+            return transactionTemplate.execute(status -> generate(repository.claimDueById(id, now), new ArrayList<>(), now));
+        } catch (RuntimeException e) {
+            log.error("Recurring expense {} failed and is paused", id, e);
+            transactionTemplate.executeWithoutResult(status -> repository.pause(id, truncate(String.valueOf(e.getMessage()))));
+            paused.increment();
+            return 0;
+        }
+    }
+
+    private int generate(List<RecurringExpense> templates, List<Long> claimed, Instant now) {
+        if (templates.isEmpty()) return 0;
+        templates.forEach(template -> claimed.add(template.getId()));
+
+        // Groups and their members in one query; the templates' group proxies resolve to these
+        Set<Long> groupIds = templates.stream().map(t -> t.getGroup().getId()).collect(Collectors.toSet());
+        Map<Long, Group> groups = groupRepository.findAllWithMembersById(groupIds).stream()
+                .collect(Collectors.toMap(Group::getId, Function.identity()));
+
+        Map<Long, List<Expense>> expensesByGroup = new TreeMap<>();
+        for (RecurringExpense template : templates) {
+            Group group = groups.get(template.getGroup().getId());
+            try {
+                List<Expense> expenses = occurrences(template, group, now);
+                if (!expenses.isEmpty()) {
+                    expensesByGroup.computeIfAbsent(group.getId(), id -> new ArrayList<>()).addAll(expenses);
+                }
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                log.info("Pausing recurring expense {} of group {}: {}", template.getId(), group.getId(), e.getMessage());
+                template.setActive(false);
+                template.setLastError(truncate(e.getMessage()));
+                paused.increment();
+            }
+        }
+
+        List<Expense> all = new ArrayList<>();
+        expensesByGroup.values().forEach(all::addAll);
+        expenseRepository.saveAll(all);
+        // TreeMap order: every batch takes group locks in ascending id order
+        expensesByGroup.forEach((groupId, expenses) -> {
+            balanceService.recordExpenses(groupId, expenses);
+            spendingRollupService.recordExpenses(groupId, expenses);
+            outboxService.recordExpensesCreated(groupId, expenses);
+        });
+        created.increment(all.size());
+        return all.size();
+    }
+
+    // Builds the template's due occurrences and advances it past them; throws if it no longer validates
+    private List<Expense> occurrences(RecurringExpense template, Group group, Instant now) {
+        CronExpression schedule = RecurringExpenseService.parseSchedule(template.getSchedule());
+        ZoneId zone = RecurringExpenseService.parseZone(template.getTimeZone());
+        Map<Long, User> members = group.getMembers().stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        Long paidById = template.getPaidBy().getId();
+        ExpenseService.checkSplits(template.getAmount(), template.getSplits(), paidById, members::containsKey);
+
+        List<Expense> expenses = new ArrayList<>();
+        Instant runAt = template.getNextRunAt();
+        while (runAt != null && !runAt.isAfter(now) && expenses.size() < maxCatchUp) {
+            Expense expense = expenseService.buildExpense(group, members.get(paidById), template.getDescription(),
+                    template.getAmount(), template.getCurrency(), template.getSplits(), members::get, runAt);
+            expense.setRecurringExpenseId(template.getId());
+            expenses.add(expense);
+            runAt = RecurringExpenseService.nextRun(schedule, zone, runAt);
+        }
+        if (runAt != null && !runAt.isAfter(now)) {
+            log.warn("Recurring expense {} missed more than {} occurrences, skipping to the next one",
+                    template.getId(), maxCatchUp);
+            runAt = RecurringExpenseService.nextRun(schedule, zone, now);
+        }
+
+        template.setLastRunAt(now);
+        if (runAt == null) {
+            template.setActive(false); // the schedule has no further occurrences
+        } else {
+            template.setNextRunAt(runAt);
+        }
+        return expenses;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) return null;
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
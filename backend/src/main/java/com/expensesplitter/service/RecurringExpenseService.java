@@ -0,0 +1,139 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.CreateRecurringExpenseRequest;
+import com.expensesplitter.dto.RecurringExpenseDTO;
+import com.expensesplitter.model.Group;
+import com.expensesplitter.model.RecurringExpense;
+import com.expensesplitter.model.User;
+import com.expensesplitter.repository.GroupRepository;
+import com.expensesplitter.repository.RecurringExpenseRepository;
+import com.expensesplitter.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class RecurringExpenseService {
+
+    private final RecurringExpenseRepository recurringExpenseRepository;
+    private final GroupRepository groupRepository;
+    private final UserRepository userRepository;
+    private final FxRateService fxRateService;
+    private final GroupMembershipIndex membershipIndex;
+
+    /** The template is validated with the same rules as a one-off expense; the requester pays. */
+    @Transactional
+    public RecurringExpenseDTO create(CreateRecurringExpenseRequest request, User paidBy) {
+        Group group = groupRepository.findById(request.getGroupId())
+                .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + request.getGroupId()));
+        ExpenseService.checkSplits(request.getAmount(), request.getSplits(), paidBy.getId(),
+                userId -> membershipIndex.isMember(group.getId(), userId));
+
+        CronExpression schedule = parseSchedule(request.getSchedule());
+        ZoneId zone = parseZone(request.getTimeZone());
+        Instant now = Instant.now();
+        Instant firstRun = nextRun(schedule, zone, now);
+        if (firstRun == null) {
+            throw new IllegalArgumentException("Schedule never fires: " + request.getSchedule());
+        }
+
+        RecurringExpense template = new RecurringExpense();
+        template.setGroup(group);
+        template.setPaidBy(userRepository.getReferenceById(paidBy.getId()));
+        template.setDescription(request.getDescription());
+        template.setAmount(request.getAmount());
+        template.setCurrency(FxRates.normalize(request.getCurrency(), group.getBaseCurrency()));
+        fxRateService.current().rate(template.getCurrency(), group.getBaseCurrency()); // fail now, not at the first run
+        template.setSplits(new HashMap<>(request.getSplits()));
+        template.setSchedule(request.getSchedule().trim());
+        template.setTimeZone(zone.getId());
+        template.setNextRunAt(firstRun);
+        template.setCreatedAt(now);
+        return toDTO(recurringExpenseRepository.save(template));
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecurringExpenseDTO> getByGroup(Long groupId, User requester) {
+        checkMember(groupId, requester);
+        return recurringExpenseRepository.findByGroupId(groupId).stream()
+                .map(RecurringExpenseService::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    /** Stops future occurrences; expenses already generated stay. */
+    @Transactional
+    public void delete(Long groupId, Long id, User requester) {
+        RecurringExpense template = recurringExpenseRepository.findById(id)
+                .filter(r -> r.getGroup().getId().equals(groupId))
+                .orElseThrow(() -> new IllegalArgumentException("Recurring expense not found with id: " + id));
+        if (!template.getPaidBy().getId().equals(requester.getId())
+                && !template.getGroup().getCreatedBy().getId().equals(requester.getId())) {
+            throw new IllegalStateException("Only the payer or the group creator can delete a recurring expense");
+        }
+        recurringExpenseRepository.delete(template);
+    }
+
+    private void checkMember(Long groupId, User requester) {
+        if (!groupRepository.existsById(groupId)) {
+            throw new IllegalArgumentException("Group not found with id: " + groupId);
+        }
+        membershipIndex.checkMember(groupId, requester);
+    }
+
+    // Accepts the usual five cron fields as well as Spring's six (with seconds) and macros like @monthly
+    static CronExpression parseSchedule(String schedule) {
+        if (schedule == null || schedule.isBlank()) {
+            throw new IllegalArgumentException("Schedule is required");
+        }
+        String trimmed = schedule.trim();
+        try {
+            return CronExpression.parse(trimmed.split("\\s+").length == 5 ? "0 " + trimmed : trimmed);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid schedule '" + trimmed + "': " + e.getMessage());
+        }
+    }
+
+    static ZoneId parseZone(String timeZone) {
+        if (timeZone == null || timeZone.isBlank()) return ZoneOffset.UTC;
+        try {
+            return ZoneId.of(timeZone.trim());
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Unknown time zone: " + timeZone);
+        }
+    }
+
+    /** First occurrence strictly after {@code after}, or null if the schedule has none. */
+    static Instant nextRun(CronExpression schedule, ZoneId zone, Instant after) {
+        ZonedDateTime next = schedule.next(after.atZone(zone));
+        return next == null ? null : next.toInstant();
+    }
+
+    static RecurringExpenseDTO toDTO(RecurringExpense template) {
+        return new RecurringExpenseDTO(
+                template.getId(),
+                template.getGroup().getId(),
+                template.getPaidBy().getId(),
+                template.getDescription(),
+                template.getAmount(),
+                template.getCurrency(),
+                new HashMap<>(template.getSplits()),
+                template.getSchedule(),
+                template.getTimeZone(),
+                template.getNextRunAt(),
+                template.getLastRunAt(),
+                template.isActive(),
+                template.getLastError(),
+                template.getCreatedAt());
+    }
+}
@@ -0,0 +1,57 @@
+package com.expensesplitter.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves the pooled id sequences past the ids already in their tables on startup.
+ * <p>
+ * {@code expenses}, {@code expense_splits}, {@code expense_items} and {@code group_balances} used to take
+ * identity ids; on a database from that time {@code ddl-auto=update} creates their sequences at 1, and the
+ * first batch insert would collide with existing rows. Runs once the schema is updated (it depends on the
+ * {@link EntityManagerFactory}) and before the web server or schedulers start. A sequence is only moved
+ * while it is behind its table's ids, which never happens once the two are aligned, so restarts and other
+ * nodes allocating meanwhile are unaffected. PostgreSQL only; other databases are created fresh.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SequenceAligner {
+
+    // Must match allocationSize on the entities' @SequenceGenerator
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "expenses", "expenses_seq",
+            "expense_splits", "expense_splits_seq",
+            "expense_items", "expense_items_seq",
+            "group_balances", "group_balances_seq");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void align() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) return;
+
+        SEQUENCES.forEach((table, sequence) -> {
+            List<Long> moved = jdbcTemplate.queryForList(
+                    "select setval('" + sequence + "', t.max_id + " + ALLOCATION_SIZE + ") " +
+                            "from (select max(id) as max_id from " + table + ") t, " + sequence + " s " +
+                            "where t.max_id > s.last_value", Long.class);
+            if (!moved.isEmpty()) {
+                log.info("Moved {} past the existing {} ids to {}", sequence, table, moved.get(0));
+            }
+        });
+    }
+}
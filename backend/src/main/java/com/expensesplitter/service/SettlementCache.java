@@ -0,0 +1,148 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.SettlementPlanDTO;
+import com.expensesplitter.model.OutboxEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of computed settlement plans.
+ * <p>
+ * Entries are keyed by the group's version, which every write affecting balances or membership bumps
+ * after its transaction commits. A plan cached under an old version is never served again and simply
+ * ages out of the LRU order. A deleted group's version and plans are dropped when its
+ * {@code GROUP_DELETED} event arrives, so versions only grow with the groups that still exist.
+ * <p>
+ * Other nodes bump on the {@link DomainEventBroadcast} of the same write. Settling and reconciling
+ * raise no event, so plans also expire after {@code app.settlements.cacheTtl}, which bounds how long
+ * another node can serve one they made stale.
+ */
+@Component
+public class SettlementCache {
+
+    record Key(Long groupId, long version, SettlementStrategy strategy, long budgetMs) {
+    }
+
+    private record Entry(SettlementPlanDTO plan, long cachedAtNanos) {
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries;
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public SettlementCache(@Value("${app.settlements.cacheSize:1000}") int maxEntries,
+                           @Value("${app.settlements.cacheTtl:PT30S}") Duration ttl,
+                           MeterRegistry registry) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > SettlementCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+                .tag("cache", "settlements").tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+                .tag("cache", "settlements").tag("result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::doubleValue)
+                .tag("cache", "settlements").register(registry);
+        Gauge.builder("cache.size", this, SettlementCache::size)
+                .tag("cache", "settlements").register(registry);
+    }
+
+    public long version(Long groupId) {
+        AtomicLong version = versions.get(groupId);
+        return version == null ? 0 : version.get();
+    }
+
+    public SettlementPlanDTO get(Key key) {
+        SettlementPlanDTO plan = null;
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.cachedAtNanos() < ttlNanos) {
+                plan = entry.plan();
+            } else if (entry != null) {
+                entries.remove(key);
+            }
+        }
+        if (plan == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return plan;
+    }
+
+    public void put(Key key, SettlementPlanDTO plan) {
+        synchronized (entries) {
+            entries.put(key, new Entry(plan, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Invalidates the group's cached plans once the current transaction commits, or immediately
+     * when called outside a transaction. Bumping before commit would let a concurrent reader cache
+     * pre-commit balances under the new version.
+     */
+    public void invalidate(Long groupId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(groupId);
+                }
+            });
+        } else {
+            bump(groupId);
+        }
+    }
+
+    // Every node hears of every write here, not only the one that made it; a second bump is harmless
+    @EventListener
+    public void onDomainEvent(DomainEventBroadcast broadcast) {
+        DomainEvent event = broadcast.event();
+        if (event.type() != OutboxEvent.Type.GROUP_DELETED) {
+            bump(event.groupId());
+            return;
+        }
+        // The group is gone for every reader, so nothing can cache a plan for it again
+        versions.remove(event.groupId());
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.groupId().equals(event.groupId()));
+        }
+    }
+
+    private void bump(Long groupId) {
+        versions.computeIfAbsent(groupId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    private double size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
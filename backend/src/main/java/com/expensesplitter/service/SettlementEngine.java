@@ -0,0 +1,181 @@
+package com.expensesplitter.service;
+
+/**
+ * Greedy debtor/creditor matcher working on balances in minor units (cents).
+ * <p>
+ * Members are addressed by ordinal and stored in parallel primitive arrays. Debtors and creditors are
+ * drawn from two binary heaps in the same order the original sorted-list matcher used: largest creditor
+ * and largest debtor first, ties broken by lower member id. All storage is sized up front, so
+ * {@link #settle()} allocates nothing and an instance can be reused via {@link #clear()}.
+ * <p>
+ * Not thread-safe; use one instance per calculation or per thread.
+ */
+public final class SettlementEngine {
+
+    private final long[] memberIds;
+    private final long[] balances;
+    private final long[] remaining;
+
+    private final int[] creditorHeap;
+    private final int[] debtorHeap;
+    private int creditorCount;
+    private int debtorCount;
+
+    private final int[] transferFrom;
+    private final int[] transferTo;
+    private final long[] transferAmount;
+    private int transferCount;
+
+    private int size;
+
+    public SettlementEngine(int capacity) {
+        memberIds = new long[capacity];
+        balances = new long[capacity];
+        remaining = new long[capacity];
+        creditorHeap = new int[capacity];
+        debtorHeap = new int[capacity];
+        transferFrom = new int[capacity];
+        transferTo = new int[capacity];
+        transferAmount = new long[capacity];
+    }
+
+    public void clear() {
+        size = 0;
+        creditorCount = 0;
+        debtorCount = 0;
+        transferCount = 0;
+    }
+
+    /**
+     * Registers a member; balance > 0 means the member should receive money, < 0 means the member owes.
+     *
+     * @return the member's ordinal
+     */
+    public int add(long memberId, long balanceCents) {
+        if (size == memberIds.length) {
+            throw new IllegalStateException("Settlement engine capacity " + memberIds.length + " exceeded");
+        }
+        memberIds[size] = memberId;
+        balances[size] = balanceCents;
+        return size++;
+    }
+
+    /**
+     * Runs the greedy matcher over the registered members.
+     *
+     * @return the number of transfers produced
+     */
+    public int settle() {
+        creditorCount = 0;
+        debtorCount = 0;
+        transferCount = 0;
+
+        for (int i = 0; i < size; i++) {
+            remaining[i] = balances[i];
+            if (balances[i] > 0) {
+                creditorHeap[creditorCount] = i;
+                siftUp(creditorHeap, creditorCount++, true);
+            } else if (balances[i] < 0) {
+                debtorHeap[debtorCount] = i;
+                siftUp(debtorHeap, debtorCount++, false);
+            }
+        }
+
+        int debtor = popDebtor();
+        int creditor = popCreditor();
+        while (debtor >= 0 && creditor >= 0) {
+            long pay = Math.min(-remaining[debtor], remaining[creditor]);
+
+            transferFrom[transferCount] = debtor;
+            transferTo[transferCount] = creditor;
+            transferAmount[transferCount] = pay;
+            transferCount++;
+
+            remaining[debtor] += pay;
+            remaining[creditor] -= pay;
+
+            if (remaining[debtor] == 0) debtor = popDebtor();
+            if (remaining[creditor] == 0) creditor = popCreditor();
+        }
+        return transferCount;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long memberId(int ordinal) {
+        return memberIds[ordinal];
+    }
+
+    public long balance(int ordinal) {
+        return balances[ordinal];
+    }
+
+    public int transferCount() {
+        return transferCount;
+    }
+
+    public int transferFrom(int transfer) {
+        return transferFrom[transfer];
+    }
+
+    public int transferTo(int transfer) {
+        return transferTo[transfer];
+    }
+
+    public long transferAmount(int transfer) {
+        return transferAmount[transfer];
+    }
+
+    private int popCreditor() {
+        if (creditorCount == 0) return -1;
+        int top = creditorHeap[0];
+        creditorHeap[0] = creditorHeap[--creditorCount];
+        siftDown(creditorHeap, creditorCount, true);
+        return top;
+    }
+
+    private int popDebtor() {
+        if (debtorCount == 0) return -1;
+        int top = debtorHeap[0];
+        debtorHeap[0] = debtorHeap[--debtorCount];
+        siftDown(debtorHeap, debtorCount, false);
+        return top;
+    }
+
+    private void siftUp(int[] heap, int pos, boolean creditors) {
+        int node = heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!before(node, heap[parent], creditors)) break;
+            heap[pos] = heap[parent];
+            pos = parent;
+        }
+        heap[pos] = node;
+    }
+
+    private void siftDown(int[] heap, int count, boolean creditors) {
+        if (count == 0) return;
+        int pos = 0;
+        int node = heap[0];
+        int half = count >>> 1;
+        while (pos < half) {
+            int child = 2 * pos + 1;
+            int right = child + 1;
+            if (right < count && before(heap[right], heap[child], creditors)) child = right;
+            if (!before(heap[child], node, creditors)) break;
+            heap[pos] = heap[child];
+            pos = child;
+        }
+        heap[pos] = node;
+    }
+
+    // Creditors: largest balance first. Debtors: most negative first. Ties: lower member id first.
+    private boolean before(int a, int b, boolean creditors) {
+        long x = balances[a];
+        long y = balances[b];
+        if (x != y) return creditors ? x > y : x < y;
+        return memberIds[a] < memberIds[b];
+    }
+}
@@ -0,0 +1,267 @@
+package com.expensesplitter.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reduces the number of transfers by splitting balances into disjoint zero-sum subsets.
+ * <p>
+ * A subset of k members whose balances sum to zero can be settled among themselves with k - 1
+ * transfers, so every extra subset found saves one transfer compared to settling everyone together.
+ * Exact-match pairs are taken first, then subsets of growing size are searched with a pruned
+ * depth-first search that fans out over the first member on the fork-join pool. The search stops at
+ * the deadline; whatever is left is settled greedily.
+ */
+public final class SettlementOptimizer {
+
+    private static final int PARALLEL_THRESHOLD = 24;
+    private static final int SEQUENTIAL_SPAN = 4;
+    private static final int DEADLINE_CHECK_MASK = (1 << 10) - 1;
+
+    private SettlementOptimizer() {
+    }
+
+    public static final class Plan {
+        private final int[] from;
+        private final int[] to;
+        private final long[] amount;
+        private int count;
+        private boolean budgetExhausted;
+
+        private Plan(int capacity) {
+            from = new int[capacity];
+            to = new int[capacity];
+            amount = new long[capacity];
+        }
+
+        public int transferCount() {
+            return count;
+        }
+
+        public int transferFrom(int transfer) {
+            return from[transfer];
+        }
+
+        public int transferTo(int transfer) {
+            return to[transfer];
+        }
+
+        public long transferAmount(int transfer) {
+            return amount[transfer];
+        }
+
+        public boolean budgetExhausted() {
+            return budgetExhausted;
+        }
+    }
+
+    /**
+     * @param memberIds member ids indexed by ordinal
+     * @param balances  balances in cents indexed by ordinal, expected to sum to zero
+     * @return transfers between member ordinals
+     */
+    public static Plan optimize(long[] memberIds, long[] balances, int size, long budgetNanos) {
+        long deadline = System.nanoTime() + budgetNanos;
+        Plan plan = new Plan(Math.max(size, 1));
+        SettlementEngine engine = new SettlementEngine(Math.max(size, 1));
+
+        int[] open = openMembersSortedByBalance(memberIds, balances, size);
+        int openCount = open.length;
+
+        openCount = settlePairs(open, openCount, memberIds, balances, engine, plan);
+
+        int k = 3;
+        while (2 * k <= openCount) {
+            Search search = new Search(open, openCount, balances, k, deadline);
+            int[] subset = search.run();
+            if (subset == null) {
+                if (search.timedOut.get()) {
+                    plan.budgetExhausted = true;
+                    break;
+                }
+                k++;
+                continue;
+            }
+            settleGroup(subset, subset.length, memberIds, balances, engine, plan);
+            openCount = remove(open, openCount, subset);
+        }
+
+        settleGroup(open, openCount, memberIds, balances, engine, plan);
+        return plan;
+    }
+
+    private static int[] openMembersSortedByBalance(long[] memberIds, long[] balances, int size) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (balances[i] != 0) count++;
+        }
+        Integer[] boxed = new Integer[count];
+        for (int i = 0, n = 0; i < size; i++) {
+            if (balances[i] != 0) boxed[n++] = i;
+        }
+        Arrays.sort(boxed, (a, b) -> balances[a] != balances[b]
+                ? Long.compare(balances[a], balances[b])
+                : Long.compare(memberIds[a], memberIds[b]));
+        int[] open = new int[count];
+        for (int i = 0; i < count; i++) open[i] = boxed[i];
+        return open;
+    }
+
+    // Most negative and most positive meet in the middle; equal magnitudes settle with one transfer
+    private static int settlePairs(int[] open, int openCount, long[] memberIds, long[] balances,
+                                   SettlementEngine engine, Plan plan) {
+        boolean[] paired = new boolean[openCount];
+        int lo = 0;
+        int hi = openCount - 1;
+        int[] pair = new int[2];
+        while (lo < hi && balances[open[lo]] < 0 && balances[open[hi]] > 0) {
+            long sum = balances[open[lo]] + balances[open[hi]];
+            if (sum == 0) {
+                pair[0] = open[lo];
+                pair[1] = open[hi];
+                settleGroup(pair, 2, memberIds, balances, engine, plan);
+                paired[lo++] = true;
+                paired[hi--] = true;
+            } else if (sum < 0) {
+                lo++;
+            } else {
+                hi--;
+            }
+        }
+        int n = 0;
+        for (int i = 0; i < openCount; i++) {
+            if (!paired[i]) open[n++] = open[i];
+        }
+        return n;
+    }
+
+    private static void settleGroup(int[] ordinals, int count, long[] memberIds, long[] balances,
+                                    SettlementEngine engine, Plan plan) {
+        engine.clear();
+        for (int i = 0; i < count; i++) {
+            engine.add(memberIds[ordinals[i]], balances[ordinals[i]]);
+        }
+        int transfers = engine.settle();
+        for (int t = 0; t < transfers; t++) {
+            plan.from[plan.count] = ordinals[engine.transferFrom(t)];
+            plan.to[plan.count] = ordinals[engine.transferTo(t)];
+            plan.amount[plan.count] = engine.transferAmount(t);
+            plan.count++;
+        }
+    }
+
+    private static int remove(int[] open, int openCount, int[] subset) {
+        int n = 0;
+        outer:
+        for (int i = 0; i < openCount; i++) {
+            for (int s : subset) {
+                if (open[i] == s) continue outer;
+            }
+            open[n++] = open[i];
+        }
+        return n;
+    }
+
+    /**
+     * Looks for one zero-sum subset of exactly k open members.
+     */
+    private static final class Search {
+        private final int[] open;
+        private final long[] values;
+        private final long[] prefix;
+        private final int m;
+        private final int k;
+        private final long deadline;
+
+        private final AtomicBoolean done = new AtomicBoolean();
+        private final AtomicBoolean timedOut = new AtomicBoolean();
+        private final AtomicReference<int[]> result = new AtomicReference<>();
+
+        Search(int[] open, int openCount, long[] balances, int k, long deadline) {
+            this.open = open;
+            this.m = openCount;
+            this.k = k;
+            this.deadline = deadline;
+            values = new long[m];
+            prefix = new long[m + 1];
+            for (int i = 0; i < m; i++) {
+                values[i] = balances[open[i]];
+                prefix[i + 1] = prefix[i] + values[i];
+            }
+        }
+
+        int[] run() {
+            int firstCount = m - k + 1;
+            if (m < PARALLEL_THRESHOLD) {
+                new FirstMemberTask(0, firstCount).searchRange();
+            } else {
+                ForkJoinPool.commonPool().invoke(new FirstMemberTask(0, firstCount));
+            }
+            return result.get();
+        }
+
+        private final class FirstMemberTask extends RecursiveAction {
+            private final int lo;
+            private final int hi;
+            private final int[] chosen = new int[k];
+            private int nodes;
+
+            FirstMemberTask(int lo, int hi) {
+                this.lo = lo;
+                this.hi = hi;
+            }
+
+            @Override
+            protected void compute() {
+                if (hi - lo <= SEQUENTIAL_SPAN) {
+                    searchRange();
+                    return;
+                }
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new FirstMemberTask(lo, mid), new FirstMemberTask(mid, hi));
+            }
+
+            void searchRange() {
+                for (int first = lo; first < hi && !done.get(); first++) {
+                    // Only subsets mixing debtors and creditors can sum to zero
+                    if (values[first] >= 0) return;
+                    if (first > 0 && values[first] == values[first - 1]) continue;
+                    chosen[0] = first;
+                    if (dfs(first + 1, k - 1, values[first], 1)) {
+                        int[] subset = new int[k];
+                        for (int i = 0; i < k; i++) subset[i] = open[chosen[i]];
+                        if (result.compareAndSet(null, subset)) done.set(true);
+                        return;
+                    }
+                }
+            }
+
+            private boolean dfs(int start, int picks, long sum, int depth) {
+                if (done.get()) return false;
+                if ((++nodes & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() > deadline) {
+                    timedOut.set(true);
+                    done.set(true);
+                    return false;
+                }
+                if (picks == 1) {
+                    int pos = Arrays.binarySearch(values, start, m, -sum);
+                    if (pos < 0) return false;
+                    chosen[depth] = pos;
+                    return true;
+                }
+                // The largest possible completion does not depend on where the next pick starts
+                if (sum + prefix[m] - prefix[m - picks] < 0) return false;
+                for (int p = start; p <= m - picks; p++) {
+                    if (sum + prefix[p + picks] - prefix[p] > 0) break;
+                    if (p > start && values[p] == values[p - 1]) continue;
+                    chosen[depth] = p;
+                    if (dfs(p + 1, picks - 1, sum + values[p], depth + 1)) return true;
+                }
+                return false;
+            }
+        }
+    }
+}
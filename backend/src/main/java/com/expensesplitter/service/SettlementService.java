@@ -1,113 +1,227 @@
 package com.expensesplitter.service;
 
+import com.expensesplitter.dto.MemberBalanceDTO;
 import com.expensesplitter.dto.SettlementDTO;
-import com.expensesplitter.model.Expense;
-import com.expensesplitter.model.ExpenseSplit;
+import com.expensesplitter.dto.SettlementPlanDTO;
+import com.expensesplitter.dto.SettlementRecordDTO;
 import com.expensesplitter.model.Group;
+import com.expensesplitter.model.Settlement;
 import com.expensesplitter.model.User;
-import com.expensesplitter.repository.ExpenseRepository;
 import com.expensesplitter.repository.GroupRepository;
+import com.expensesplitter.repository.SettlementRepository;
+import com.expensesplitter.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 public class SettlementService {
 
+    // Budgets the optimal search runs with; others round down to one of these, so they share cache entries
+    static final long[] BUDGETS_MS = {10, 25, 50, 100, 250, 500, 1000};
+
     private final GroupRepository groupRepository;
-    private final ExpenseRepository expenseRepository;
+    private final BalanceService balanceService;
+    private final SettlementCache settlementCache;
+    private final SettlementRepository settlementRepository;
+    private final UserRepository userRepository;
+    private final GroupMembershipIndex membershipIndex;
 
     @Transactional(readOnly = true)
     public List<SettlementDTO> calculateSettlements(Long groupId, User requester) {
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + groupId));
+        return calculateSettlementPlan(groupId, requester, SettlementStrategy.GREEDY, 0).getSettlements();
+    }
+
+    /**
+     * Settlement plan for the requested strategy. The optimal strategy searches for fewer transfers
+     * within the time budget and falls back to the greedy plan when it cannot beat it; a plan whose
+     * search ran out of budget says so ({@code searchComplete} is false), cached or not.
+     * Plans are cached per group version, so repeated polling of an unchanged group is a map lookup.
+     */
+    @Transactional(readOnly = true)
+    public SettlementPlanDTO calculateSettlementPlan(Long groupId, User requester,
+                                                     SettlementStrategy strategy, long budgetMs) {
+        checkMembership(groupId, requester);
+
+        long budget = strategy == SettlementStrategy.GREEDY ? 0 : budgetBucket(budgetMs);
+        // Read the version before the balances: a write committing in between only makes this entry stale
+        SettlementCache.Key key = new SettlementCache.Key(groupId, settlementCache.version(groupId), strategy, budget);
+        SettlementPlanDTO plan = settlementCache.get(key);
+        if (plan == null) {
+            plan = computePlan(balanceService.getBalances(groupId), strategy, budget);
+            settlementCache.put(key, plan);
+        }
+        return plan;
+    }
 
-        if (!group.getMembers().contains(requester)) {
-            throw new IllegalStateException("User is not a member of this group");
+    static long budgetBucket(long budgetMs) {
+        long bucket = BUDGETS_MS[0];
+        for (long candidate : BUDGETS_MS) {
+            if (candidate <= budgetMs) bucket = candidate;
         }
+        return bucket;
+    }
 
-        Map<Long, User> userById = new HashMap<>();
-        for (User u : group.getMembers()) {
-            userById.put(u.getId(), u);
+    private SettlementPlanDTO computePlan(List<MemberBalanceDTO> members, SettlementStrategy strategy, long budget) {
+        List<SettlementDTO> greedy = settle(members);
+        if (strategy == SettlementStrategy.GREEDY) {
+            return new SettlementPlanDTO(SettlementStrategy.GREEDY.paramValue(), 0, true, greedy);
         }
 
-        // balance > 0 means user should receive money, < 0 means user owes money
-        Map<Long, BigDecimal> balance = new HashMap<>();
-        for (Long userId : userById.keySet()) {
-            balance.put(userId, BigDecimal.ZERO);
+        SettlementOptimizer.Plan plan = runOptimizer(members, TimeUnit.MILLISECONDS.toNanos(budget));
+        boolean complete = !plan.budgetExhausted();
+        if (plan.transferCount() < greedy.size()) {
+            return new SettlementPlanDTO(SettlementStrategy.OPTIMAL.paramValue(),
+                    greedy.size() - plan.transferCount(), complete, toSettlements(members, plan));
         }
+        return new SettlementPlanDTO(SettlementStrategy.GREEDY.paramValue(), 0, complete, greedy);
+    }
 
-        // Compute balances from expenses/splits. We only count unpaid splits.
-        // If an expense is paid by A and split says B owes $x, then:
-        //  - A should receive +x
-        //  - B owes -x
-        for (Expense expense : expenseRepository.findByGroup(group)) {
-            User paidBy = expense.getPaidBy();
-            if (paidBy == null) continue;
-
-            for (ExpenseSplit split : expense.getSplits()) {
-                if (split.isPaid()) continue;
-                if (split.getUser() == null) continue;
-                if (paidBy.getId().equals(split.getUser().getId())) continue;
-
-                BigDecimal amt = split.getAmount() == null ? BigDecimal.ZERO : split.getAmount();
-                if (amt.compareTo(BigDecimal.ZERO) <= 0) continue;
-
-                balance.put(paidBy.getId(), balance.getOrDefault(paidBy.getId(), BigDecimal.ZERO).add(amt));
-                balance.put(split.getUser().getId(), balance.getOrDefault(split.getUser().getId(), BigDecimal.ZERO).subtract(amt));
-            }
+    /**
+     * Snapshots the current plan into persisted PENDING settlements, replacing any pending ones.
+     */
+    @Transactional
+    public List<SettlementRecordDTO> recordSettlementPlan(Long groupId, User requester,
+                                                         SettlementStrategy strategy, long budgetMs) {
+        Group group = checkMembership(groupId, requester);
+        SettlementPlanDTO plan = calculateSettlementPlan(groupId, requester, strategy, budgetMs);
+
+        settlementRepository.deletePendingByGroupId(groupId);
+        List<Settlement> records = new ArrayList<>(plan.getSettlements().size());
+        for (SettlementDTO transfer : plan.getSettlements()) {
+            Settlement settlement = new Settlement();
+            settlement.setGroup(group);
+            settlement.setFromUser(userRepository.getReferenceById(transfer.getFromUserId()));
+            settlement.setToUser(userRepository.getReferenceById(transfer.getToUserId()));
+            settlement.setAmount(transfer.getAmount());
+            settlement.setStatus(Settlement.Status.PENDING);
+            records.add(settlement);
         }
+        settlementRepository.saveAll(records);
 
-        // Greedy settlement generation
-        List<Map.Entry<Long, BigDecimal>> creditors = balance.entrySet().stream()
-                .filter(e -> e.getValue().compareTo(BigDecimal.ZERO) > 0)
-                .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
+        return settlementRepository.findWithUsersByGroupId(groupId).stream()
+                .map(this::toRecordDTO)
                 .toList();
+    }
 
-        List<Map.Entry<Long, BigDecimal>> debtors = balance.entrySet().stream()
-                .filter(e -> e.getValue().compareTo(BigDecimal.ZERO) < 0)
-                .sorted(Comparator.comparing(Map.Entry::getValue)) // most negative first
+    @Transactional(readOnly = true)
+    public List<SettlementRecordDTO> getRecordedSettlements(Long groupId, User requester) {
+        checkMembership(groupId, requester);
+        return settlementRepository.findWithUsersByGroupId(groupId).stream()
+                .map(this::toRecordDTO)
                 .toList();
+    }
 
-        int i = 0;
-        int j = 0;
-        List<SettlementDTO> settlements = new ArrayList<>();
+    /**
+     * Marks one transfer as done and applies it to the balance ledger, instead of flipping the
+     * paid flag on every split it covers.
+     */
+    @Transactional
+    public SettlementRecordDTO completeSettlement(Long groupId, Long settlementId, User requester) {
+        Settlement settlement = settlementRepository.findById(settlementId)
+                .filter(s -> s.getGroup().getId().equals(groupId))
+                .orElseThrow(() -> new IllegalArgumentException("Settlement not found with id: " + settlementId));
+
+        if (!settlement.getFromUser().getId().equals(requester.getId())
+                && !settlement.getToUser().getId().equals(requester.getId())) {
+            throw new IllegalStateException("Only the payer or the receiver can complete a settlement");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (settlementRepository.markCompletedIfPending(settlementId, now) != 1) {
+            throw new IllegalArgumentException("Settlement " + settlementId + " is already completed");
+        }
+        balanceService.recordSettlementCompleted(settlement);
 
-        // Make mutable copies
-        Map<Long, BigDecimal> bal = new HashMap<>(balance);
+        SettlementRecordDTO dto = toRecordDTO(settlement);
+        dto.setStatus(Settlement.Status.COMPLETED.name());
+        dto.setCompletedAt(now);
+        return dto;
+    }
 
-        while (i < debtors.size() && j < creditors.size()) {
-            Long debtorId = debtors.get(i).getKey();
-            Long creditorId = creditors.get(j).getKey();
+    private Group checkMembership(Long groupId, User requester) {
+        Group group = groupRepository.findById(groupId)
+                .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + groupId));
 
-            BigDecimal owes = bal.get(debtorId).abs();
-            BigDecimal gets = bal.get(creditorId);
-            BigDecimal pay = owes.min(gets).setScale(2, RoundingMode.HALF_UP);
+        membershipIndex.checkMember(groupId, requester);
+        return group;
+    }
 
-            if (pay.compareTo(BigDecimal.ZERO) > 0) {
-                User from = userById.get(debtorId);
-                User to = userById.get(creditorId);
-                settlements.add(new SettlementDTO(
-                        from.getId(), from.getName(),
-                        to.getId(), to.getName(),
-                        pay
-                ));
+    private SettlementRecordDTO toRecordDTO(Settlement settlement) {
+        return new SettlementRecordDTO(
+                settlement.getId(),
+                settlement.getGroup().getId(),
+                settlement.getFromUser().getId(), settlement.getFromUser().getName(),
+                settlement.getToUser().getId(), settlement.getToUser().getName(),
+                settlement.getAmount(),
+                settlement.getStatus().name(),
+                settlement.getCreatedAt(),
+                settlement.getCompletedAt()
+        );
+    }
 
-                bal.put(debtorId, bal.get(debtorId).add(pay));
-                bal.put(creditorId, bal.get(creditorId).subtract(pay));
-            }
+    /**
+     * Greedy settlement over member balances, computed in cents on primitive arrays.
+     */
+    public static List<SettlementDTO> settle(List<MemberBalanceDTO> members) {
+        SettlementEngine engine = new SettlementEngine(members.size());
+        for (MemberBalanceDTO member : members) {
+            engine.add(member.getUserId(), toCents(member.getBalance()));
+        }
 
-            if (bal.get(debtorId).compareTo(BigDecimal.ZERO) == 0) i++;
-            if (bal.get(creditorId).compareTo(BigDecimal.ZERO) == 0) j++;
+        int transfers = engine.settle();
+        List<SettlementDTO> settlements = new ArrayList<>(transfers);
+        for (int t = 0; t < transfers; t++) {
+            MemberBalanceDTO from = members.get(engine.transferFrom(t));
+            MemberBalanceDTO to = members.get(engine.transferTo(t));
+            settlements.add(new SettlementDTO(
+                    from.getUserId(), from.getUserName(),
+                    to.getUserId(), to.getUserName(),
+                    BigDecimal.valueOf(engine.transferAmount(t), 2)
+            ));
         }
+        return settlements;
+    }
 
+    public static List<SettlementDTO> optimize(List<MemberBalanceDTO> members, long budgetNanos) {
+        return toSettlements(members, runOptimizer(members, budgetNanos));
+    }
+
+    private static SettlementOptimizer.Plan runOptimizer(List<MemberBalanceDTO> members, long budgetNanos) {
+        int size = members.size();
+        long[] ids = new long[size];
+        long[] cents = new long[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = members.get(i).getUserId();
+            cents[i] = toCents(members.get(i).getBalance());
+        }
+        return SettlementOptimizer.optimize(ids, cents, size, budgetNanos);
+    }
+
+    private static List<SettlementDTO> toSettlements(List<MemberBalanceDTO> members, SettlementOptimizer.Plan plan) {
+        List<SettlementDTO> settlements = new ArrayList<>(plan.transferCount());
+        for (int t = 0; t < plan.transferCount(); t++) {
+            MemberBalanceDTO from = members.get(plan.transferFrom(t));
+            MemberBalanceDTO to = members.get(plan.transferTo(t));
+            settlements.add(new SettlementDTO(
+                    from.getUserId(), from.getUserName(),
+                    to.getUserId(), to.getUserName(),
+                    BigDecimal.valueOf(plan.transferAmount(t), 2)
+            ));
+        }
         return settlements;
     }
+
+    static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
 }
 
 
@@ -0,0 +1,20 @@
+package com.expensesplitter.service;
+
+import java.util.Locale;
+
+public enum SettlementStrategy {
+    GREEDY,
+    OPTIMAL;
+
+    public static SettlementStrategy fromParam(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown settlement strategy: " + value);
+        }
+    }
+
+    public String paramValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,90 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.repository.ExpenseRepository;
+import com.expensesplitter.repository.GroupRepository;
+import com.expensesplitter.repository.SpendingRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Periodically recomputes every group's spending rollups from the raw expenses.
+ * Groups are rebuilt in parallel on {@code app.rollups.rebuildThreads} threads, each in its own
+ * transaction, so one large group never holds up the rest.
+ */
+@Slf4j
+@Component
+public class SpendingRollupRebuildJob {
+
+    private final GroupRepository groupRepository;
+    private final ExpenseRepository expenseRepository;
+    private final SpendingRollupRepository spendingRollupRepository;
+    private final SpendingRollupService spendingRollupService;
+    private final int threads;
+
+    public SpendingRollupRebuildJob(GroupRepository groupRepository,
+                                    ExpenseRepository expenseRepository,
+                                    SpendingRollupRepository spendingRollupRepository,
+                                    SpendingRollupService spendingRollupService,
+                                    @Value("${app.rollups.rebuildThreads:4}") int threads) {
+        this.groupRepository = groupRepository;
+        this.expenseRepository = expenseRepository;
+        this.spendingRollupRepository = spendingRollupRepository;
+        this.spendingRollupService = spendingRollupService;
+        this.threads = Math.max(1, threads);
+    }
+
+    // Databases that predate the rollups start with an empty table; backfill it once
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (spendingRollupRepository.count() == 0 && expenseRepository.count() > 0) {
+            log.info("Spending rollups are empty, rebuilding them from expenses");
+            run();
+        }
+    }
+
+    @Scheduled(cron = "${app.rollups.rebuildCron:0 30 3 * * *}")
+    public void run() {
+        long started = System.nanoTime();
+        int failed = rebuildAll();
+        log.info("Spending rollup rebuild finished in {} ms, {} group(s) failed",
+                (System.nanoTime() - started) / 1_000_000, failed);
+    }
+
+    /** Rebuilds every group and returns how many failed; a failed group keeps its previous rollups. */
+    public int rebuildAll() {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Long> groupIds = groupRepository.findAllIds();
+            List<Future<Integer>> results = new ArrayList<>(groupIds.size());
+            for (Long groupId : groupIds) {
+                results.add(executor.submit(() -> spendingRollupService.rebuild(groupId)));
+            }
+            int failed = 0;
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    results.get(i).get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.warn("Rebuilding spending rollups of group {} failed", groupIds.get(i), e.getCause());
+                }
+            }
+            return failed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Spending rollup rebuild interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.GroupMonthSpendingDTO;
+import com.expensesplitter.dto.GroupSpendingDTO;
+import com.expensesplitter.dto.GroupStatsDTO;
+import com.expensesplitter.dto.MemberSpendingDTO;
+import com.expensesplitter.dto.MonthlySpendingDTO;
+import com.expensesplitter.dto.UserStatsDTO;
+import com.expensesplitter.model.Expense;
+import com.expensesplitter.model.ExpenseSplit;
+import com.expensesplitter.model.Group;
+import com.expensesplitter.model.SpendingRollup;
+import com.expensesplitter.model.User;
+import com.expensesplitter.repository.GroupRepository;
+import com.expensesplitter.repository.SpendingRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Keeps the per-(group, user, month) spending rollups in step with expense writes and answers the
+ * stats endpoints from them, so a stats query reads members x months rows however long the history is.
+ * <p>
+ * Writers take the group row lock before touching rollup rows, and {@link #rebuild} takes it first,
+ * so a rebuild never races an incremental update of the same group.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SpendingRollupService {
+
+    static final int MAX_MONTHS = 120;
+
+    private static final String PAID_SQL =
+            "select paid_by_id, created_at, coalesce(base_amount, amount) from expenses where group_id = ?";
+    private static final String SHARE_SQL = "select s.user_id, e.created_at, coalesce(s.base_amount, s.amount) " +
+            "from expense_splits s " +
+            "join expenses e on e.id = s.expense_id where e.group_id = ?";
+
+    private record Key(Long userId, LocalDate month) {
+    }
+
+    private final SpendingRollupRepository spendingRollupRepository;
+    private final GroupRepository groupRepository;
+    private final FxRateService fxRateService;
+    private final GroupMembershipIndex membershipIndex;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpenses(Long groupId, Collection<Expense> expenses) {
+        Map<Key, SpendingRollup> deltas = new HashMap<>();
+        for (Expense expense : expenses) {
+            if (expense.getCreatedAt() == null) continue;
+            LocalDate month = monthOf(expense.getCreatedAt());
+            SpendingRollup payer = delta(deltas, groupId, expense.getPaidBy().getId(), month);
+            payer.setPaid(payer.getPaid().add(expense.amountInBaseCurrency()));
+            payer.setExpenseCount(payer.getExpenseCount() + 1);
+            for (ExpenseSplit split : expense.getSplits()) {
+                SpendingRollup member = delta(deltas, groupId, split.getUser().getId(), month);
+                member.setShare(member.getShare().add(split.amountInBaseCurrency()));
+            }
+        }
+        if (deltas.isEmpty()) return;
+
+        groupRepository.lockById(groupId)
+                .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + groupId));
+        Set<LocalDate> months = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        for (Key key : deltas.keySet()) {
+            months.add(key.month());
+            userIds.add(key.userId());
+        }
+        Map<Key, SpendingRollup> rows = new HashMap<>();
+        for (SpendingRollup row : spendingRollupRepository.findForUpdate(groupId, months, userIds)) {
+            rows.put(new Key(row.getUserId(), row.getMonth()), row);
+        }
+
+        List<SpendingRollup> created = new ArrayList<>();
+        for (Map.Entry<Key, SpendingRollup> entry : deltas.entrySet()) {
+            SpendingRollup row = rows.get(entry.getKey());
+            SpendingRollup delta = entry.getValue();
+            if (row == null) {
+                created.add(delta);
+                continue;
+            }
+            row.setPaid(row.getPaid().add(delta.getPaid()));
+            row.setShare(row.getShare().add(delta.getShare()));
+            row.setExpenseCount(row.getExpenseCount() + delta.getExpenseCount());
+        }
+        spendingRollupRepository.saveAll(created);
+    }
+
+    /**
+     * Recomputes one group's rollups from its expenses and splits, streamed with plain JDBC.
+     * Returns the number of rollup rows written.
+     */
+    @Transactional
+    public int rebuild(Long groupId) {
+        if (groupRepository.lockById(groupId).isEmpty()) {
+            return 0;
+        }
+        Map<Key, SpendingRollup> totals = new HashMap<>();
+        jdbcTemplate.query(PAID_SQL, rs -> {
+            LocalDate month = month(rs);
+            if (month == null) return;
+            SpendingRollup row = delta(totals, groupId, rs.getLong(1), month);
+            row.setPaid(row.getPaid().add(rs.getBigDecimal(3)));
+            row.setExpenseCount(row.getExpenseCount() + 1);
+        }, groupId);
+        jdbcTemplate.query(SHARE_SQL, rs -> {
+            LocalDate month = month(rs);
+            if (month == null) return;
+            SpendingRollup row = delta(totals, groupId, rs.getLong(1), month);
+            row.setShare(row.getShare().add(rs.getBigDecimal(3)));
+        }, groupId);
+
+        spendingRollupRepository.deleteByGroupId(groupId);
+        spendingRollupRepository.saveAll(totals.values());
+        return totals.size();
+    }
+
+    @Transactional(readOnly = true)
+    public GroupStatsDTO getGroupStats(Long groupId, User requester, YearMonth from, YearMonth to) {
+        Group group = groupRepository.findById(groupId)
+                .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + groupId));
+        membershipIndex.checkMember(groupId, requester);
+        YearMonth[] range = range(from, to);
+        LocalDate start = range[0].atDay(1);
+        LocalDate end = range[1].atDay(1);
+
+        List<MonthlySpendingDTO> months = spendingRollupRepository.sumGroupByMonth(groupId, start, end);
+        List<MemberSpendingDTO> members = spendingRollupRepository.sumGroupByMember(groupId, start, end);
+        BigDecimal total = BigDecimal.ZERO;
+        long count = 0;
+        for (MonthlySpendingDTO month : months) {
+            total = total.add(month.getPaid());
+            count += month.getExpenseCount();
+        }
+        return new GroupStatsDTO(groupId, range[0], range[1], group.getBaseCurrency(), total, count, months, members);
+    }
+
+    /**
+     * The user's spending across groups. Groups can keep their books in different currencies, so each
+     * (group, month) row is converted into {@code currency} against one rate snapshot before summing.
+     */
+    @Transactional(readOnly = true)
+    public UserStatsDTO getUserStats(User user, YearMonth from, YearMonth to, String currency) {
+        YearMonth[] range = range(from, to);
+        String target = FxRates.normalize(currency, fxRateService.defaultCurrency());
+        FxRates rates = fxRateService.current();
+
+        Map<LocalDate, MonthlySpendingDTO> months = new TreeMap<>();
+        Map<Long, GroupSpendingDTO> groups = new TreeMap<>();
+        BigDecimal paid = BigDecimal.ZERO;
+        BigDecimal share = BigDecimal.ZERO;
+        for (GroupMonthSpendingDTO row : spendingRollupRepository.findUserRows(user.getId(),
+                range[0].atDay(1), range[1].atDay(1))) {
+            BigDecimal rowPaid = rates.convert(row.getPaid(), row.getCurrency(), target);
+            BigDecimal rowShare = rates.convert(row.getShare(), row.getCurrency(), target);
+            MonthlySpendingDTO month = months.computeIfAbsent(row.getMonth(),
+                    m -> new MonthlySpendingDTO(m, BigDecimal.ZERO, BigDecimal.ZERO, 0L));
+            month.setPaid(month.getPaid().add(rowPaid));
+            month.setShare(month.getShare().add(rowShare));
+            month.setExpenseCount(month.getExpenseCount() + row.getExpenseCount());
+            GroupSpendingDTO group = groups.computeIfAbsent(row.getGroupId(),
+                    id -> new GroupSpendingDTO(id, row.getGroupName(), BigDecimal.ZERO, BigDecimal.ZERO));
+            group.setPaid(group.getPaid().add(rowPaid));
+            group.setShare(group.getShare().add(rowShare));
+            paid = paid.add(rowPaid);
+            share = share.add(rowShare);
+        }
+        return new UserStatsDTO(user.getId(), range[0], range[1], target, paid, share,
+                new ArrayList<>(months.values()), new ArrayList<>(groups.values()));
+    }
+
+    // Defaults to the last 12 months including the current one; capped so a query stays bounded
+    private static YearMonth[] range(YearMonth from, YearMonth to) {
+        YearMonth end = to != null ? to : YearMonth.now(ZoneOffset.UTC);
+        YearMonth start = from != null ? from : end.minusMonths(11);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (start.plusMonths(MAX_MONTHS).isBefore(end.plusMonths(1))) {
+            throw new IllegalArgumentException("A stats range can span at most " + MAX_MONTHS + " months");
+        }
+        return new YearMonth[]{start, end};
+    }
+
+    private static SpendingRollup delta(Map<Key, SpendingRollup> deltas, Long groupId, Long userId, LocalDate month) {
+        return deltas.computeIfAbsent(new Key(userId, month), key -> new SpendingRollup(groupId, userId, month));
+    }
+
+    // Expenses without a timestamp cannot be placed in a month and are left out of the rollups
+    private static LocalDate month(ResultSet rs) throws SQLException {
+        OffsetDateTime createdAt = rs.getObject(2, OffsetDateTime.class);
+        return createdAt == null ? null : monthOf(createdAt.toInstant());
+    }
+
+    static LocalDate monthOf(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC).withDayOfMonth(1);
+    }
+}
@@ -0,0 +1,148 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.CreateExpenseRequest;
+import com.expensesplitter.dto.CreateGroupRequest;
+import com.expensesplitter.dto.ExpenseDTO;
+import com.expensesplitter.dto.GroupDTO;
+import com.expensesplitter.dto.GroupNetBalanceDTO;
+import com.expensesplitter.dto.LedgerDriftDTO;
+import com.expensesplitter.dto.MemberBalanceDTO;
+import com.expensesplitter.dto.SettlementRecordDTO;
+import com.expensesplitter.dto.UserBalancesDTO;
+import com.expensesplitter.model.GroupBalance;
+import com.expensesplitter.model.User;
+import com.expensesplitter.repository.GroupBalanceRepository;
+import com.expensesplitter.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BalanceServiceTest {
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private GroupBalanceRepository groupBalanceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void ledger_tracksExpensesAndPayments_andReconcileRepairsDrift() {
+        User alice = newUser("Alice");
+        User bob = newUser("Bob");
+        GroupDTO group = groupService.createGroup(new CreateGroupRequest("Trip"), alice);
+        groupService.addMember(group.getId(), bob.getId(), alice);
+
+        ExpenseDTO dinner = expenseService.createExpense(new CreateExpenseRequest(
+                "Dinner", new BigDecimal("60.00"), group.getId(),
+                Map.of(alice.getId(), new BigDecimal("30.00"), bob.getId(), new BigDecimal("30.00"))), alice);
+
+        assertThat(balances(group.getId()))
+                .containsEntry(alice.getId(), new BigDecimal("30.00"))
+                .containsEntry(bob.getId(), new BigDecimal("-30.00"));
+
+        Long bobSplitId = dinner.getSplits().stream()
+                .filter(s -> s.getUserId().equals(bob.getId()))
+                .findFirst().orElseThrow().getId();
+        expenseService.markSplitAsPaid(bobSplitId, bob);
+        expenseService.markSplitAsPaid(bobSplitId, bob);
+
+        assertThat(balances(group.getId()))
+                .containsEntry(alice.getId(), new BigDecimal("0.00"))
+                .containsEntry(bob.getId(), new BigDecimal("0.00"));
+
+        GroupBalance row = groupBalanceRepository.findAll().stream()
+                .filter(b -> b.getGroupId().equals(group.getId()) && b.getUserId().equals(bob.getId()))
+                .findFirst().orElseThrow();
+        row.setBalance(new BigDecimal("5.00"));
+        groupBalanceRepository.save(row);
+
+        List<LedgerDriftDTO> drift = balanceService.reconcile(group.getId());
+
+        assertThat(drift).hasSize(1);
+        assertThat(drift.get(0).getUserId()).isEqualTo(bob.getId());
+        assertThat(balances(group.getId())).containsEntry(bob.getId(), new BigDecimal("0.00"));
+    }
+
+    @Test
+    void completedSettlement_appliesToLedger_andReconcileKeepsIt() {
+        User alice = newUser("Alice");
+        User bob = newUser("Bob");
+        GroupDTO group = groupService.createGroup(new CreateGroupRequest("Flat"), alice);
+        groupService.addMember(group.getId(), bob.getId(), alice);
+        expenseService.createExpense(new CreateExpenseRequest(
+                "Rent", new BigDecimal("100.00"), group.getId(),
+                Map.of(alice.getId(), new BigDecimal("50.00"), bob.getId(), new BigDecimal("50.00"))), alice);
+
+        List<SettlementRecordDTO> plan = settlementService.recordSettlementPlan(
+                group.getId(), bob, SettlementStrategy.GREEDY, 0);
+        assertThat(plan).hasSize(1);
+        assertThat(plan.get(0).getStatus()).isEqualTo("PENDING");
+
+        settlementService.completeSettlement(group.getId(), plan.get(0).getId(), bob);
+
+        assertThat(balances(group.getId()))
+                .containsEntry(alice.getId(), new BigDecimal("0.00"))
+                .containsEntry(bob.getId(), new BigDecimal("0.00"));
+        assertThat(settlementService.calculateSettlements(group.getId(), alice)).isEmpty();
+        assertThat(balanceService.reconcile(group.getId())).isEmpty();
+    }
+
+    @Test
+    void userBalances_netCounterpartiesAcrossGroups() {
+        User alice = newUser("Alice");
+        User bob = newUser("Bob");
+        GroupDTO trip = groupService.createGroup(new CreateGroupRequest("Trip"), alice);
+        GroupDTO flat = groupService.createGroup(new CreateGroupRequest("Flat"), bob);
+        groupService.addMember(trip.getId(), bob.getId(), alice);
+        groupService.addMember(flat.getId(), alice.getId(), bob);
+        expenseService.createExpense(new CreateExpenseRequest("Hotel", new BigDecimal("80.00"), trip.getId(),
+                Map.of(alice.getId(), new BigDecimal("40.00"), bob.getId(), new BigDecimal("40.00"))), alice);
+        expenseService.createExpense(new CreateExpenseRequest("Rent", new BigDecimal("30.00"), flat.getId(),
+                Map.of(alice.getId(), new BigDecimal("30.00"))), bob);
+
+        UserBalancesDTO balances = balanceService.getUserBalances(alice);
+
+        assertThat(balances.getNet()).isEqualByComparingTo("10.00");
+        assertThat(balances.getTotalOwedToYou()).isEqualByComparingTo("10.00");
+        assertThat(balances.getCounterparties()).hasSize(1);
+        assertThat(balances.getCounterparties().get(0).getGroups()).hasSize(2);
+        assertThat(balances.getGroups())
+                .extracting(GroupNetBalanceDTO::getNet)
+                .usingComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .containsExactly(new BigDecimal("40.00"), new BigDecimal("-30.00"));
+    }
+
+    private Map<Long, BigDecimal> balances(Long groupId) {
+        return balanceService.getBalances(groupId).stream()
+                .collect(Collectors.toMap(MemberBalanceDTO::getUserId, MemberBalanceDTO::getBalance));
+    }
+
+    private User newUser(String name) {
+        return userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@example.com")
+                .password("password123")
+                .name(name)
+                .build());
+    }
+}
@@ -0,0 +1,85 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.CreateExpenseRequest;
+import com.expensesplitter.dto.CreateGroupRequest;
+import com.expensesplitter.dto.DashboardDTO;
+import com.expensesplitter.dto.DashboardGroupDTO;
+import com.expensesplitter.dto.ExpenseDTO;
+import com.expensesplitter.dto.GroupDTO;
+import com.expensesplitter.model.User;
+import com.expensesplitter.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class DashboardServiceTest {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void dashboard_combinesGroupsBalancesRecentExpensesAndTotals() {
+        User alice = newUser("Alice");
+        User bob = newUser("Bob");
+        GroupDTO trip = groupService.createGroup(new CreateGroupRequest("Trip"), alice);
+        groupService.addMember(trip.getId(), bob.getId(), alice);
+        GroupDTO flat = groupService.createGroup(new CreateGroupRequest("Flat"), bob);
+        groupService.addMember(flat.getId(), alice.getId(), bob);
+        groupService.createGroup(new CreateGroupRequest("Empty"), alice);
+
+        for (int i = 1; i <= 3; i++) {
+            expenseService.createExpense(new CreateExpenseRequest("Dinner " + i, new BigDecimal("20.00"), trip.getId(),
+                    Map.of(alice.getId(), new BigDecimal("10.00"), bob.getId(), new BigDecimal("10.00"))), alice);
+        }
+        expenseService.createExpense(new CreateExpenseRequest("Rent", new BigDecimal("8.00"), flat.getId(),
+                Map.of(alice.getId(), new BigDecimal("4.00"), bob.getId(), new BigDecimal("4.00"))), bob);
+
+        DashboardDTO dashboard = dashboardService.getDashboard(alice, null, 2);
+
+        assertThat(dashboard.getGroups()).extracting(g -> g.getGroup().getName())
+                .containsExactly("Trip", "Flat", "Empty");
+        DashboardGroupDTO tripItem = dashboard.getGroups().get(0);
+        assertThat(tripItem.getBalance()).isEqualByComparingTo("30.00");
+        assertThat(tripItem.getRecentExpenses()).extracting(ExpenseDTO::getDescription)
+                .containsExactly("Dinner 3", "Dinner 2");
+        assertThat(tripItem.getRecentExpenses().get(0).getSplits()).hasSize(2);
+        DashboardGroupDTO flatItem = dashboard.getGroups().get(1);
+        assertThat(flatItem.getBalance()).isEqualByComparingTo("-4.00");
+        assertThat(flatItem.getRecentExpenses()).extracting(ExpenseDTO::getPaidByName).containsExactly("Bob");
+        assertThat(dashboard.getGroups().get(2).getBalance()).isEqualByComparingTo("0");
+        assertThat(dashboard.getGroups().get(2).getRecentExpenses()).isEmpty();
+
+        assertThat(dashboard.getCurrency()).isEqualTo("USD");
+        assertThat(dashboard.getTotalOwedToYou()).isEqualByComparingTo("26.00");
+        assertThat(dashboard.getTotalYouOwe()).isEqualByComparingTo("0");
+        assertThat(dashboard.getNet()).isEqualByComparingTo("26.00");
+
+        assertThat(dashboardService.getDashboard(bob, null, 0).getGroups())
+                .allSatisfy(group -> assertThat(group.getRecentExpenses()).isEmpty())
+                .hasSize(2);
+    }
+
+    private User newUser(String name) {
+        return userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@example.com")
+                .password("password123")
+                .name(name)
+                .build());
+    }
+}
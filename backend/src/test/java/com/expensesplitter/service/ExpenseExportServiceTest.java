@@ -0,0 +1,120 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.CreateExpenseRequest;
+import com.expensesplitter.dto.CreateGroupRequest;
+import com.expensesplitter.dto.GroupDTO;
+import com.expensesplitter.model.User;
+import com.expensesplitter.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "app.export.fetchSize=2")
+class ExpenseExportServiceTest {
+
+    @Autowired
+    private ExpenseExportService expenseExportService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User alice;
+    private User bob;
+    private Long groupId;
+
+    @BeforeEach
+    void setUp() {
+        alice = newUser("Alice");
+        bob = newUser("Bob, Jr.");
+        GroupDTO group = groupService.createGroup(new CreateGroupRequest("Books"), alice);
+        groupService.addMember(group.getId(), bob.getId(), alice);
+        groupId = group.getId();
+        for (int i = 0; i < 3; i++) {
+            expenseService.createExpense(new CreateExpenseRequest("Item \"" + i + "\"", new BigDecimal("10.00"), groupId,
+                    Map.of(alice.getId(), new BigDecimal("4.00"), bob.getId(), new BigDecimal("6.00"))), alice);
+        }
+    }
+
+    @Test
+    void export_ndjsonWritesOneExpensePerLineWithNestedSplits() throws IOException {
+        String[] lines = export(ExpenseFileFormat.NDJSON, false).split("\n");
+
+        assertThat(lines).hasSize(3);
+        for (String line : lines) {
+            assertThat(line).startsWith("{");
+            assertThat(objectMapper.readTree(line).get("splits")).hasSize(2);
+        }
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("description").asText()).isEqualTo("Item \"0\"");
+        assertThat(first.get("paidByName").asText()).isEqualTo("Alice");
+        assertThat(first.get("splits")).hasSize(2);
+        assertThat(first.get("splits").findValuesAsText("userName")).containsExactlyInAnyOrder("Alice", "Bob, Jr.");
+    }
+
+    @Test
+    void export_csvWritesOneRowPerSplit_andGzipRoundTrips() throws IOException {
+        String csv = export(ExpenseFileFormat.CSV, true);
+
+        String[] lines = csv.split("\n");
+        assertThat(lines[0] + "\n").isEqualTo(ExpenseExportService.CSV_HEADER);
+        assertThat(lines).hasSize(1 + 6);
+        assertThat(csv).contains("\"Item \"\"0\"\"\"").contains("\"Bob, Jr.\"");
+    }
+
+    @Test
+    void export_stopsReadingWhenTheClientGoesAway() {
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThatThrownBy(() -> expenseExportService.export(groupId, ExpenseFileFormat.NDJSON, false, disconnected))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Broken pipe");
+    }
+
+    private String export(ExpenseFileFormat format, boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        expenseExportService.export(groupId, format, gzip, out);
+        byte[] bytes = out.toByteArray();
+        if (gzip) {
+            bytes = new GZIPInputStream(new ByteArrayInputStream(bytes)).readAllBytes();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private User newUser(String name) {
+        return userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@example.com")
+                .password("password123")
+                .name(name)
+                .build());
+    }
+}
@@ -0,0 +1,122 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.CreateGroupRequest;
+import com.expensesplitter.dto.ExpenseImportResultDTO;
+import com.expensesplitter.dto.GroupDTO;
+import com.expensesplitter.dto.ImportRowErrorDTO;
+import com.expensesplitter.dto.MemberBalanceDTO;
+import com.expensesplitter.model.Expense;
+import com.expensesplitter.model.User;
+import com.expensesplitter.repository.ExpenseRepository;
+import com.expensesplitter.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"app.import.chunkSize=2", "app.import.maxErrors=1"})
+class ExpenseImportServiceTest {
+
+    @Autowired
+    private ExpenseImportService expenseImportService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void importCsv_commitsValidRowsInChunks_andReportsBadRows() throws IOException {
+        User alice = newUser("Alice");
+        User bob = newUser("Bob");
+        User outsider = newUser("Outsider");
+        GroupDTO group = groupService.createGroup(new CreateGroupRequest("Flat"), alice);
+        groupService.addMember(group.getId(), bob.getId(), alice);
+
+        long a = alice.getId();
+        long b = bob.getId();
+        String csv = String.join("\n",
+                "description,amount,paidById,splits",
+                "\"Rent, March\",100.00,," + a + ":50.00;" + b + ":50.00",
+                "Power,30.00," + a + "," + a + ":15.00;" + b + ":15.00",
+                "Broken,10.00,,not-a-split",
+                "Snacks,12.00,," + a + ":6.00;" + outsider.getId() + ":6.00",
+                "Taxi,8.00," + b + "," + a + ":4.00;" + b + ":4.00",
+                "",
+                "Internet,40.00,," + a + ":20.00;" + b + ":20.00");
+
+        ExpenseImportResultDTO result = import_(group.getId(), csv, ExpenseFileFormat.CSV, alice);
+
+        // Taxi names Bob as the payer: an importer can only book expenses they paid themselves
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getErrors()).extracting(ImportRowErrorDTO::getLine).containsExactly(4L);
+        assertThat(result.isErrorsTruncated()).isTrue();
+        assertThat(expenseRepository.findAll())
+                .filteredOn(e -> e.getGroup().getId().equals(group.getId()))
+                .extracting(Expense::getDescription)
+                .containsExactlyInAnyOrder("Rent, March", "Power", "Internet");
+        // Alice is owed 50 + 15 + 20; the ledger was updated once per chunk
+        assertThat(balances(group.getId()))
+                .containsEntry(a, new BigDecimal("85.00"))
+                .containsEntry(b, new BigDecimal("-85.00"));
+    }
+
+    @Test
+    void importNdjson_validatesRowsLikeTheSingleCreateEndpoint() throws IOException {
+        User alice = newUser("Alice");
+        User bob = newUser("Bob");
+        GroupDTO group = groupService.createGroup(new CreateGroupRequest("Trip"), alice);
+        groupService.addMember(group.getId(), bob.getId(), alice);
+
+        String ndjson = String.join("\n",
+                "{\"description\":\"Fuel\",\"amount\":20.00,\"splits\":{\"" + alice.getId() + "\":10.00,\"" + bob.getId() + "\":10.00}}",
+                "{\"description\":\"\",\"amount\":5.00,\"splits\":{\"" + bob.getId() + "\":5.00}}",
+                "{\"description\":\"Tolls\",\"amount\":9.00,\"splits\":{\"" + bob.getId() + "\":8.00}}",
+                "{not json");
+
+        ExpenseImportResultDTO result = import_(group.getId(), ndjson, ExpenseFileFormat.NDJSON, bob);
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getErrors().get(0).getMessage()).contains("description");
+        assertThat(balances(group.getId()))
+                .containsEntry(bob.getId(), new BigDecimal("10.00"))
+                .containsEntry(alice.getId(), new BigDecimal("-10.00"));
+    }
+
+    private ExpenseImportResultDTO import_(Long groupId, String body, ExpenseFileFormat format, User user)
+            throws IOException {
+        return expenseImportService.importExpenses(groupId,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format, user);
+    }
+
+    private Map<Long, BigDecimal> balances(Long groupId) {
+        return balanceService.getBalances(groupId).stream()
+                .collect(Collectors.toMap(MemberBalanceDTO::getUserId, MemberBalanceDTO::getBalance));
+    }
+
+    private User newUser(String name) {
+        return userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@example.com")
+                .password("password123")
+                .name(name)
+                .build());
+    }
+}
@@ -0,0 +1,103 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.CreateExpenseRequest;
+import com.expensesplitter.dto.CreateGroupRequest;
+import com.expensesplitter.dto.ExpenseDTO;
+import com.expensesplitter.dto.GroupDTO;
+import com.expensesplitter.model.User;
+import com.expensesplitter.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.search.maxIndexSize=2KB")
+class ExpenseSearchIndexTest {
+
+    @Autowired
+    private ExpenseSearchIndex searchIndex;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private OutboxBroadcaster broadcaster;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void tokenize_lowercasesAndSplitsOnNonWordCharacters() {
+        assertThat(ExpenseSearchIndex.tokenize("Uber -> Airport (Uber)")).containsExactly("uber", "airport");
+        assertThat(ExpenseSearchIndex.tokenize("Café, 2nd round")).containsExactly("café", "2nd", "round");
+        assertThat(ExpenseSearchIndex.tokenize(" ,; ")).isEmpty();
+    }
+
+    @Test
+    void search_matchesEveryTermByPrefix_ranksExactShortMatchesFirst_andPicksUpNewExpenses() {
+        User alice = newUser("Alice");
+        GroupDTO group = groupService.createGroup(new CreateGroupRequest("Flat"), alice);
+        ExpenseDTO rentMarch = expense(group, alice, "Rent March");
+        ExpenseDTO rentApril = expense(group, alice, "Rent April");
+        ExpenseDTO rentals = expense(group, alice, "Bike rentals for the whole weekend");
+        expense(group, alice, "Groceries");
+
+        assertThat(ids(expenseService.searchExpenses(group.getId(), alice, "rent mar", null)))
+                .containsExactly(rentMarch.getId());
+        assertThat(ids(expenseService.searchExpenses(group.getId(), alice, "RENT", null)))
+                .containsExactly(rentApril.getId(), rentMarch.getId(), rentals.getId());
+        assertThat(expenseService.searchExpenses(group.getId(), alice, "taxi", null)).isEmpty();
+
+        // Indexed from the outbox once broadcast, without rebuilding
+        ExpenseDTO rentMay = expense(group, alice, "Rent May");
+        assertThat(ids(expenseService.searchExpenses(group.getId(), alice, "may", null))).isEmpty();
+        drainOutbox();
+        assertThat(ids(expenseService.searchExpenses(group.getId(), alice, "rent may", null)))
+                .containsExactly(rentMay.getId());
+    }
+
+    @Test
+    void search_evictsLeastRecentlyUsedGroupsPastTheSizeBudget() {
+        User alice = newUser("Alice");
+        for (int g = 0; g < 4; g++) {
+            GroupDTO group = groupService.createGroup(new CreateGroupRequest("Group " + g), alice);
+            for (int i = 0; i < 5; i++) {
+                expense(group, alice, "Expense number " + i + " for group " + g);
+            }
+            assertThat(searchIndex.search(group.getId(), "expense", 10)).hasSize(5);
+        }
+        assertThat(searchIndex.size()).isLessThan(4);
+    }
+
+    private void drainOutbox() {
+        while (broadcaster.broadcastPending() == 500) {
+            // other tests may have left a backlog behind
+        }
+    }
+
+    private ExpenseDTO expense(GroupDTO group, User payer, String description) {
+        return expenseService.createExpense(new CreateExpenseRequest(description, new BigDecimal("10.00"),
+                group.getId(), Map.of(payer.getId(), new BigDecimal("10.00"))), payer);
+    }
+
+    private static List<Long> ids(List<ExpenseDTO> expenses) {
+        return expenses.stream().map(ExpenseDTO::getId).toList();
+    }
+
+    private User newUser(String name) {
+        return userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@example.com")
+                .password("password123")
+                .name(name)
+                .build());
+    }
+}
@@ -0,0 +1,224 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.BulkPaySplitsRequest;
+import com.expensesplitter.dto.BulkPaySplitsResultDTO;
+import com.expensesplitter.dto.CreateExpenseItemRequest;
+import com.expensesplitter.dto.CreateExpenseRequest;
+import com.expensesplitter.dto.CreateItemizedExpenseRequest;
+import com.expensesplitter.dto.ExpenseDTO;
+import com.expensesplitter.dto.ExpenseItemDTO;
+import com.expensesplitter.dto.ExpensePageDTO;
+import com.expensesplitter.dto.ExpenseSplitDTO;
+import com.expensesplitter.dto.GroupNetBalanceDTO;
+import com.expensesplitter.model.Group;
+import com.expensesplitter.model.User;
+import com.expensesplitter.repository.GroupRepository;
+import com.expensesplitter.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ExpenseServiceTest {
+
+    private static final int SPLIT_COUNT = 50;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void createExpense_withManySplits_usesConstantStatementCount() {
+        List<User> members = new ArrayList<>();
+        for (int i = 0; i < SPLIT_COUNT; i++) {
+            members.add(newUser("Member " + i));
+        }
+        Group group = new Group();
+        group.setName("Big trip");
+        group.setCreatedBy(members.get(0));
+        group.getMembers().addAll(members);
+        group = groupRepository.save(group);
+
+        Map<Long, BigDecimal> splits = new LinkedHashMap<>();
+        for (User member : members) {
+            splits.put(member.getId(), new BigDecimal("2.00"));
+        }
+        CreateExpenseRequest request = new CreateExpenseRequest(
+                "Cabin", new BigDecimal("100.00"), group.getId(), splits);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ExpenseDTO expense = expenseService.createExpense(request, members.get(0));
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(expense.getSplits()).hasSize(SPLIT_COUNT);
+        assertThat(expense.getSplits()).allSatisfy(split -> assertThat(split.getId()).isNotNull());
+        // Previously 3 statements per split (two user lookups and an insert) plus the balance rows
+        assertThat(statements).isLessThan(20);
+    }
+
+    @Test
+    void getExpensePage_walksAllExpensesNewestFirst_withConstantQueriesPerPage() {
+        User alice = newUser("Alice");
+        Group group = new Group();
+        group.setName("Pages");
+        group.setCreatedBy(alice);
+        group.getMembers().add(alice);
+        group = groupRepository.save(group);
+
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(expenseService.createExpense(new CreateExpenseRequest("Expense " + i, new BigDecimal("1.00"),
+                    group.getId(), Map.of(alice.getId(), new BigDecimal("1.00"))), alice).getId());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Long> seen = new ArrayList<>();
+        List<Long> statementsPerPage = new ArrayList<>();
+        String cursor = null;
+        do {
+            statistics.clear();
+            ExpensePageDTO page = expenseService.getExpensePage(group.getId(), alice, cursor, 2, null);
+            statementsPerPage.add(statistics.getPrepareStatementCount());
+            page.getItems().forEach(item -> {
+                assertThat(item.getSplits()).hasSize(1);
+                seen.add(item.getId());
+            });
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        Collections.reverse(created);
+        assertThat(seen).containsExactlyElementsOf(created);
+        assertThat(statementsPerPage).hasSize(3).containsOnly(statementsPerPage.get(0));
+
+        Instant future = Instant.now().plusSeconds(60);
+        assertThat(expenseService.getExpensePage(group.getId(), alice, null, null, future).getItems()).isEmpty();
+    }
+
+    @Test
+    void getExpensesByGroup_usesSameQueryCountAsTheGroupGrows() {
+        User alice = newUser("Alice");
+        User bob = newUser("Bob");
+        Group group = new Group();
+        group.setName("Growing");
+        group.setCreatedBy(alice);
+        group.getMembers().addAll(List.of(alice, bob));
+        group = groupRepository.save(group);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Long> statementCounts = new ArrayList<>();
+        for (int batch = 0; batch < 2; batch++) {
+            for (int i = 0; i < 10; i++) {
+                expenseService.createExpense(new CreateExpenseRequest("Expense " + i, new BigDecimal("4.00"),
+                        group.getId(), Map.of(alice.getId(), new BigDecimal("1.00"), bob.getId(), new BigDecimal("3.00"))), bob);
+            }
+            statistics.clear();
+            List<ExpenseDTO> expenses = expenseService.getExpensesByGroup(group.getId());
+            statementCounts.add(statistics.getPrepareStatementCount());
+
+            assertThat(expenses).hasSize(10 * (batch + 1));
+            assertThat(expenses).allSatisfy(expense -> {
+                assertThat(expense.getPaidByName()).isEqualTo("Bob");
+                assertThat(expense.getSplits()).extracting(ExpenseSplitDTO::getUserName)
+                        .containsExactlyInAnyOrder("Alice", "Bob");
+            });
+        }
+
+        assertThat(statementCounts.get(1)).isEqualTo(statementCounts.get(0)).isLessThanOrEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void createItemizedExpense_derivesSplitsAndPersistsItems() {
+        User alice = newUser("Alice");
+        User bob = newUser("Bob");
+        Group group = new Group();
+        group.setName("Dinner");
+        group.setCreatedBy(alice);
+        group.getMembers().addAll(List.of(alice, bob));
+        group = groupRepository.save(group);
+
+        CreateItemizedExpenseRequest request = new CreateItemizedExpenseRequest("Dinner", group.getId(), List.of(
+                new CreateExpenseItemRequest("Steak", new BigDecimal("30.00"), bob.getId()),
+                new CreateExpenseItemRequest("Wine", new BigDecimal("20.00"), null)),
+                new BigDecimal("4.00"), new BigDecimal("6.00"), null);
+        ExpenseDTO expense = expenseService.createItemizedExpense(request, alice);
+
+        assertThat(expense.getAmount()).isEqualByComparingTo("60.00");
+        assertThat(expense.getItems()).extracting(ExpenseItemDTO::getAssignedToName).containsExactly("Bob", null);
+        // Bob: 40.00 of the 50.00 subtotal, Alice 10.00; the 10.00 tax + tip follows the same ratio
+        assertThat(expense.getSplits())
+                .extracting(ExpenseSplitDTO::getUserName, ExpenseSplitDTO::getAmount)
+                .containsExactlyInAnyOrder(tuple("Alice", new BigDecimal("12.00")), tuple("Bob", new BigDecimal("48.00")));
+    }
+
+    @Test
+    void markSplitsAsPaid_paysByGroupOrByIds_andMovesTheLedgerOnce() {
+        User alice = newUser("Alice");
+        User bob = newUser("Bob");
+        List<Long> groupIds = new ArrayList<>();
+        List<Long> bobSplitIds = new ArrayList<>();
+        List<Long> aliceSplitIds = new ArrayList<>();
+        for (String name : List.of("Rent", "Trip")) {
+            Group group = new Group();
+            group.setName(name);
+            group.setCreatedBy(alice);
+            group.getMembers().addAll(List.of(alice, bob));
+            group = groupRepository.save(group);
+            groupIds.add(group.getId());
+            for (int i = 0; i < 3; i++) {
+                ExpenseDTO expense = expenseService.createExpense(new CreateExpenseRequest(name + " " + i, new BigDecimal("10.00"),
+                        group.getId(), Map.of(alice.getId(), new BigDecimal("5.00"), bob.getId(), new BigDecimal("5.00"))), alice);
+                for (ExpenseSplitDTO split : expense.getSplits()) {
+                    (split.getUserId().equals(bob.getId()) ? bobSplitIds : aliceSplitIds).add(split.getId());
+                }
+            }
+        }
+
+        BulkPaySplitsResultDTO rent = expenseService.markSplitsAsPaid(new BulkPaySplitsRequest(null, groupIds.get(0)), bob);
+        assertThat(rent.getUpdated()).isEqualTo(3);
+        assertThat(rent.getBalances()).singleElement()
+                .satisfies(balance -> assertThat(balance.getNet()).isEqualByComparingTo("0.00"));
+
+        // Already-paid rent splits and Alice's own split id are skipped
+        List<Long> ids = new ArrayList<>(bobSplitIds);
+        ids.add(aliceSplitIds.get(aliceSplitIds.size() - 1));
+        BulkPaySplitsResultDTO rest = expenseService.markSplitsAsPaid(new BulkPaySplitsRequest(ids, null), bob);
+        assertThat(rest.getUpdated()).isEqualTo(3);
+        assertThat(rest.getBalances()).extracting(GroupNetBalanceDTO::getGroupId).containsExactly(groupIds.get(1));
+        assertThat(rest.getBalances().get(0).getNet()).isEqualByComparingTo("0.00");
+
+        assertThat(expenseService.markSplitsAsPaid(new BulkPaySplitsRequest(null, groupIds.get(1)), bob).getUpdated()).isZero();
+    }
+
+    private User newUser(String name) {
+        return userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@example.com")
+                .password("password123")
+                .name(name)
+                .build());
+    }
+}
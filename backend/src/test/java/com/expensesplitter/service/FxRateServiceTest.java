@@ -0,0 +1,114 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.CreateExpenseRequest;
+import com.expensesplitter.dto.CreateGroupRequest;
+import com.expensesplitter.dto.ExpenseDTO;
+import com.expensesplitter.dto.GroupDTO;
+import com.expensesplitter.dto.MemberBalanceDTO;
+import com.expensesplitter.dto.UserBalancesDTO;
+import com.expensesplitter.model.FxRate;
+import com.expensesplitter.model.User;
+import com.expensesplitter.repository.FxRateRepository;
+import com.expensesplitter.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "app.fx.reloadIntervalMs=3600000")
+class FxRateServiceTest {
+
+    @Autowired
+    private FxRateService fxRateService;
+
+    @Autowired
+    private FxRateRepository fxRateRepository;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void foreignExpense_isConvertedOnceIntoTheGroupCurrency_andCrossGroupTotalsConvertOnRead() {
+        fxRateRepository.saveAll(List.of(new FxRate("USD", BigDecimal.ONE), new FxRate("EUR", new BigDecimal("0.5"))));
+        fxRateService.reload();
+
+        User alice = newUser("Alice");
+        User bob = newUser("Bob");
+        GroupDTO group = groupService.createGroup(new CreateGroupRequest("Trip", "usd"), alice);
+        assertThat(group.getBaseCurrency()).isEqualTo("USD");
+        groupService.addMember(group.getId(), bob.getId(), alice);
+
+        ExpenseDTO dinner = expenseService.createExpense(new CreateExpenseRequest("Dinner", new BigDecimal("30.00"),
+                group.getId(), Map.of(alice.getId(), new BigDecimal("15.00"), bob.getId(), new BigDecimal("15.00")),
+                "EUR"), alice);
+        assertThat(dinner.getCurrency()).isEqualTo("EUR");
+        assertThat(dinner.getBaseAmount()).isEqualByComparingTo("60.00");
+
+        Map<Long, BigDecimal> balances = balanceService.getBalances(group.getId()).stream()
+                .collect(Collectors.toMap(MemberBalanceDTO::getUserId, MemberBalanceDTO::getBalance));
+        assertThat(balances.get(alice.getId())).isEqualByComparingTo("30.00");
+        assertThat(balances.get(bob.getId())).isEqualByComparingTo("-30.00");
+
+        // A later rate change does not move what was already booked
+        fxRateRepository.save(new FxRate("EUR", new BigDecimal("0.25")));
+        fxRateService.reload();
+        assertThat(balanceService.reconcile(group.getId())).isEmpty();
+
+        UserBalancesDTO inEuro = balanceService.getUserBalances(alice, "eur");
+        assertThat(inEuro.getCurrency()).isEqualTo("EUR");
+        assertThat(inEuro.getNet()).isEqualByComparingTo("7.50");
+
+        assertThatThrownBy(() -> expenseService.createExpense(new CreateExpenseRequest("Snacks", BigDecimal.TEN,
+                group.getId(), Map.of(alice.getId(), BigDecimal.TEN), "JPY"), alice))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("No exchange rate for JPY");
+        assertThatThrownBy(() -> groupService.createGroup(new CreateGroupRequest("Bad", "XYZ1"), alice))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void reload_readsRatesFile_andKeepsPreviousSnapshotWhenTheFileIsBroken(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("rates.csv");
+        Files.writeString(file, "# units per EUR\nEUR,1\nusd, 1.10\n\nGBP,0.85\n");
+        FxRateService fromFile = new FxRateService(fxRateRepository, file.toString(), "EUR");
+        fromFile.reload();
+
+        FxRates rates = fromFile.current();
+        assertThat(rates.size()).isEqualTo(3);
+        assertThat(rates.convert(new BigDecimal("11.00"), "USD", "EUR")).isEqualByComparingTo("10.00");
+        assertThat(rates.convert(new BigDecimal("10.00"), "EUR", "GBP")).isEqualByComparingTo("8.50");
+
+        Files.writeString(file, "EUR,not-a-number\n");
+        fromFile.reload();
+        assertThat(fromFile.current()).isSameAs(rates);
+    }
+
+    private User newUser(String name) {
+        return userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@example.com")
+                .password("password123")
+                .name(name)
+                .build());
+    }
+}
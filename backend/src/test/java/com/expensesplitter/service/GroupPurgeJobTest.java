@@ -0,0 +1,125 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.CreateExpenseItemRequest;
+import com.expensesplitter.dto.CreateExpenseRequest;
+import com.expensesplitter.dto.CreateGroupRequest;
+import com.expensesplitter.dto.CreateItemizedExpenseRequest;
+import com.expensesplitter.dto.CreateRecurringExpenseRequest;
+import com.expensesplitter.dto.GroupDTO;
+import com.expensesplitter.dto.GroupNetBalanceDTO;
+import com.expensesplitter.dto.GroupPurgeDTO;
+import com.expensesplitter.dto.GroupSpendingDTO;
+import com.expensesplitter.model.User;
+import com.expensesplitter.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "app.purge.batchSize=2")
+class GroupPurgeJobTest {
+
+    @Autowired
+    private GroupPurgeJob purgeJob;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private RecurringExpenseService recurringExpenseService;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private SpendingRollupService spendingRollupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deleteGroup_hidesTheGroupAtOnce_andThePurgeRemovesItsRowsInChunks() {
+        User alice = newUser("Alice");
+        User bob = newUser("Bob");
+        GroupDTO trip = groupService.createGroup(new CreateGroupRequest("Trip"), alice);
+        groupService.addMember(trip.getId(), bob.getId(), alice);
+        GroupDTO flat = groupService.createGroup(new CreateGroupRequest("Flat"), alice);
+        groupService.addMember(flat.getId(), bob.getId(), alice);
+        for (int i = 0; i < 3; i++) {
+            expenseService.createExpense(new CreateExpenseRequest("Dinner " + i, new BigDecimal("20.00"), trip.getId(),
+                    Map.of(alice.getId(), new BigDecimal("10.00"), bob.getId(), new BigDecimal("10.00"))), alice);
+        }
+        expenseService.createItemizedExpense(new CreateItemizedExpenseRequest("Groceries", trip.getId(), List.of(
+                new CreateExpenseItemRequest("Bread", new BigDecimal("4.00"), bob.getId()),
+                new CreateExpenseItemRequest("Milk", new BigDecimal("2.00"), null)), null, null, null), alice);
+        settlementService.recordSettlementPlan(trip.getId(), alice, SettlementStrategy.GREEDY, 100);
+        recurringExpenseService.create(new CreateRecurringExpenseRequest("Rent", new BigDecimal("10.00"), trip.getId(),
+                Map.of(alice.getId(), new BigDecimal("5.00"), bob.getId(), new BigDecimal("5.00")), null,
+                "0 9 1 * *", null), alice);
+        expenseService.createExpense(new CreateExpenseRequest("Rent", new BigDecimal("8.00"), flat.getId(),
+                Map.of(alice.getId(), new BigDecimal("4.00"), bob.getId(), new BigDecimal("4.00"))), alice);
+
+        assertThatThrownBy(() -> groupService.deleteGroup(trip.getId(), bob))
+                .isInstanceOf(IllegalStateException.class);
+        GroupPurgeDTO queued = groupService.deleteGroup(trip.getId(), alice);
+        assertThat(queued.getPhase()).isEqualTo("EXPENSE_SPLITS");
+        assertThat(queued.isCompleted()).isFalse();
+
+        // Gone for every reader before a single row is purged
+        assertThatThrownBy(() -> groupService.getGroupById(trip.getId())).isInstanceOf(IllegalArgumentException.class);
+        assertThat(groupService.getUserGroups(bob)).extracting(GroupDTO::getId).containsExactly(flat.getId());
+        assertThat(balanceService.getUserBalances(bob).getGroups()).extracting(GroupNetBalanceDTO::getGroupId)
+                .containsExactly(flat.getId());
+        assertThat(spendingRollupService.getUserStats(bob, null, null, null).getGroups()).extracting(GroupSpendingDTO::getGroupId)
+                .containsExactly(flat.getId());
+        assertThatThrownBy(() -> expenseService.createExpense(new CreateExpenseRequest("Late", new BigDecimal("2.00"),
+                trip.getId(), Map.of(alice.getId(), new BigDecimal("2.00"))), alice))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> groupService.deleteGroup(trip.getId(), alice)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> groupService.getDeletion(trip.getId(), bob)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(count("expenses", trip.getId())).isEqualTo(4);
+
+        assertThat(purgeJob.purgePending()).isGreaterThan(0);
+
+        GroupPurgeDTO done = groupService.getDeletion(trip.getId(), alice);
+        assertThat(done.isCompleted()).isTrue();
+        assertThat(done.getCompletedAt()).isNotNull();
+        for (String table : List.of("expenses", "settlements", "group_balances", "spending_rollups", "group_members")) {
+            assertThat(count(table, trip.getId())).as(table).isZero();
+        }
+        assertThat(jdbcTemplate.queryForObject("select count(*) from groups where id = ?", Long.class, trip.getId()))
+                .isZero();
+        assertThat(count("expenses", flat.getId())).isEqualTo(1);
+        assertThat(count("group_members", flat.getId())).isEqualTo(2);
+        assertThat(purgeJob.purgePending()).isZero();
+    }
+
+    private long count(String table, Long groupId) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table + " where group_id = ?", Long.class, groupId);
+    }
+
+    private User newUser(String name) {
+        return userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@example.com")
+                .password("password123")
+                .name(name)
+                .build());
+    }
+}
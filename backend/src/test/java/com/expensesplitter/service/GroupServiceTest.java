@@ -0,0 +1,143 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.BulkMembersRequest;
+import com.expensesplitter.dto.BulkMembersResultDTO;
+import com.expensesplitter.dto.CreateGroupRequest;
+import com.expensesplitter.dto.GroupDTO;
+import com.expensesplitter.model.OutboxEvent;
+import com.expensesplitter.model.User;
+import com.expensesplitter.repository.OutboxEventRepository;
+import com.expensesplitter.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class GroupServiceTest {
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private GroupMembershipIndex membershipIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void getUserGroups_listsCreatedAndJoinedGroupsOnce_withAllMemberIds() {
+        User alice = newUser("Alice");
+        User bob = newUser("Bob");
+        User carol = newUser("Carol");
+        GroupDTO flat = groupService.createGroup(new CreateGroupRequest("Flat"), alice);
+        groupService.addMember(flat.getId(), bob.getId(), alice);
+        groupService.addMember(flat.getId(), carol.getId(), alice);
+        GroupDTO trip = groupService.createGroup(new CreateGroupRequest("Trip", "EUR"), bob);
+        groupService.addMember(trip.getId(), alice.getId(), bob);
+        groupService.createGroup(new CreateGroupRequest("Bob only"), bob);
+
+        List<GroupDTO> groups = groupService.getUserGroups(alice);
+
+        assertThat(groups).extracting(GroupDTO::getId).containsExactly(flat.getId(), trip.getId());
+        assertThat(groups.get(0).getMemberIds()).containsExactlyInAnyOrder(alice.getId(), bob.getId(), carol.getId());
+        assertThat(groups.get(0).getCreatedByName()).isEqualTo("Alice");
+        assertThat(groups.get(0).getCreatedAt()).isNotNull();
+        assertThat(groups.get(1).getMemberIds()).containsExactlyInAnyOrder(alice.getId(), bob.getId());
+        assertThat(groups.get(1).getBaseCurrency()).isEqualTo("EUR");
+        assertThat(groupService.getUserGroups(carol)).extracting(GroupDTO::getName).containsExactly("Flat");
+    }
+
+    @Test
+    void membershipIndex_followsAddAndRemoveOnceCommitted() {
+        User alice = newUser("Alice");
+        User bob = newUser("Bob");
+        GroupDTO group = groupService.createGroup(new CreateGroupRequest("Band"), alice);
+
+        assertThat(membershipIndex.isMember(group.getId(), alice.getId())).isTrue();
+        assertThat(membershipIndex.isMember(group.getId(), bob.getId())).isFalse();
+
+        groupService.addMember(group.getId(), bob.getId(), alice);
+        assertThat(membershipIndex.memberIds(group.getId())).containsExactly(alice.getId(), bob.getId());
+
+        groupService.removeMember(group.getId(), bob.getId(), alice);
+        assertThat(membershipIndex.isMember(group.getId(), bob.getId())).isFalse();
+        assertThatThrownBy(() -> membershipIndex.checkMember(group.getId(), bob))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void bulkMembers_reportAddedSkippedAndUnknown_andKeepTheIndexCurrent() {
+        User alice = newUser("Alice");
+        User bob = newUser("Bob");
+        User carol = newUser("Carol");
+        User dave = newUser("Dave");
+        GroupDTO group = groupService.createGroup(new CreateGroupRequest("Company"), alice);
+        groupService.addMember(group.getId(), bob.getId(), alice);
+
+        BulkMembersResultDTO added = groupService.addMembers(group.getId(), new BulkMembersRequest(
+                List.of(bob.getId(), carol.getId(), -1L, carol.getId()),
+                List.of(dave.getEmail(), "nobody@example.com")), alice);
+
+        assertThat(added.getAdded()).containsExactly(carol.getId(), dave.getId());
+        assertThat(added.getSkipped()).containsExactly(bob.getId());
+        assertThat(added.getUnknownIds()).containsExactly(-1L);
+        assertThat(added.getUnknownEmails()).containsExactly("nobody@example.com");
+        assertThat(membershipIndex.memberIds(group.getId()))
+                .containsExactly(alice.getId(), bob.getId(), carol.getId(), dave.getId());
+
+        BulkMembersResultDTO removed = groupService.removeMembers(group.getId(), new BulkMembersRequest(
+                List.of(alice.getId(), bob.getId(), dave.getId()), null), alice);
+        assertThat(removed.getRemoved()).containsExactly(bob.getId(), dave.getId());
+        assertThat(removed.getSkipped()).containsExactly(alice.getId());
+        assertThat(membershipIndex.memberIds(group.getId())).containsExactly(alice.getId(), carol.getId());
+
+        assertThatThrownBy(() -> groupService.addMembers(group.getId(),
+                new BulkMembersRequest(List.of(bob.getId()), null), carol))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> groupService.addMembers(group.getId(), new BulkMembersRequest(null, List.of()), alice))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void bulkAdd_ofExistingMembers_reportsThemSkipped_andPublishesOnlyTheNewOnes() {
+        User alice = newUser("Alice");
+        User bob = newUser("Bob");
+        User carol = newUser("Carol");
+        GroupDTO group = groupService.createGroup(new CreateGroupRequest("Club"), alice);
+        groupService.addMember(group.getId(), bob.getId(), alice);
+
+        BulkMembersResultDTO again = groupService.addMembers(group.getId(),
+                new BulkMembersRequest(List.of(alice.getId(), bob.getId()), List.of(bob.getEmail())), alice);
+        assertThat(again.getAdded()).isEmpty();
+        assertThat(again.getSkipped()).containsExactly(alice.getId(), bob.getId());
+
+        BulkMembersResultDTO mixed = groupService.addMembers(group.getId(),
+                new BulkMembersRequest(List.of(bob.getId(), carol.getId()), null), alice);
+        assertThat(mixed.getAdded()).containsExactly(carol.getId());
+        assertThat(mixed.getSkipped()).containsExactly(bob.getId());
+
+        List<String> added = outboxEventRepository.findAll().stream()
+                .filter(e -> e.getGroupId().equals(group.getId()) && e.getType() == OutboxEvent.Type.MEMBER_ADDED)
+                .map(OutboxEvent::getPayload)
+                .toList();
+        assertThat(added).hasSize(2);
+        assertThat(added.get(1)).isEqualTo("{\"userIds\":[" + carol.getId() + "]}");
+    }
+
+    private User newUser(String name) {
+        return userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@example.com")
+                .password("password123")
+                .name(name)
+                .build());
+    }
+}
@@ -0,0 +1,94 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.CreateExpenseRequest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryIdempotencyStoreTest {
+
+    private final InMemoryIdempotencyStore store =
+            new InMemoryIdempotencyStore(100, Duration.ofMinutes(5), Duration.ofSeconds(10));
+
+    @Test
+    void execute_concurrentDuplicatesWaitForOneWinner() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<IdempotencyStore.Result<String>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return store.execute("expenses:1", "key-1", "body", String.class, () -> {
+                        sleep(100);
+                        return "expense-" + runs.incrementAndGet();
+                    });
+                }));
+            }
+            start.countDown();
+
+            int replayed = 0;
+            for (Future<IdempotencyStore.Result<String>> result : results) {
+                assertThat(result.get().value()).isEqualTo("expense-1");
+                if (result.get().replayed()) replayed++;
+            }
+            assertThat(runs).hasValue(1);
+            assertThat(replayed).isEqualTo(7);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_rejectsKeyReuseWithDifferentRequest_andForgetsFailedAttempts() {
+        assertThatThrownBy(() -> store.execute("expenses:1", "key-2", "body", String.class, () -> {
+            throw new IllegalStateException("boom");
+        })).hasMessage("boom");
+
+        IdempotencyStore.Result<String> retried = store.execute("expenses:1", "key-2", "body", String.class, () -> "ok");
+        assertThat(retried).isEqualTo(new IdempotencyStore.Result<>("ok", false));
+
+        assertThatThrownBy(() -> store.execute("expenses:1", "key-2", "other body", String.class, () -> "again"))
+                .isInstanceOf(IllegalArgumentException.class);
+        // Keys are scoped, so another user may use the same key
+        assertThat(store.execute("expenses:2", "key-2", "other body", String.class, () -> "theirs").replayed()).isFalse();
+    }
+
+    @Test
+    void fingerprint_isASha256OfTheCanonicalBody() {
+        Map<Long, BigDecimal> splits = new LinkedHashMap<>();
+        splits.put(2L, new BigDecimal("5.00"));
+        splits.put(1L, new BigDecimal("5.00"));
+        CreateExpenseRequest request = new CreateExpenseRequest("Lunch", new BigDecimal("10.00"), 7L, splits);
+        CreateExpenseRequest reordered = new CreateExpenseRequest("Lunch", new BigDecimal("10.00"), 7L,
+                new TreeMap<>(splits));
+        CreateExpenseRequest other = new CreateExpenseRequest("Lunch", new BigDecimal("10.00"), 7L,
+                Map.of(1L, new BigDecimal("4.00"), 2L, new BigDecimal("6.00")));
+
+        assertThat(RequestFingerprint.of(request)).hasSize(64).isEqualTo(RequestFingerprint.of(reordered));
+        assertThat(RequestFingerprint.of(other)).isNotEqualTo(RequestFingerprint.of(request));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.CreateExpenseRequest;
+import com.expensesplitter.dto.CreateGroupRequest;
+import com.expensesplitter.dto.ExpenseDTO;
+import com.expensesplitter.dto.GroupDTO;
+import com.expensesplitter.model.User;
+import com.expensesplitter.repository.ExpenseRepository;
+import com.expensesplitter.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "app.idempotency.store=jdbc")
+class JdbcIdempotencyStoreTest {
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void execute_replaysTheStoredExpense_evenForConcurrentRetries() {
+        assertThat(idempotencyStore).isInstanceOf(JdbcIdempotencyStore.class);
+        User alice = userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@example.com")
+                .password("password123")
+                .name("Alice")
+                .build());
+        GroupDTO group = groupService.createGroup(new CreateGroupRequest("Retries"), alice);
+        CreateExpenseRequest request = new CreateExpenseRequest("Taxi", new BigDecimal("12.50"), group.getId(),
+                Map.of(alice.getId(), new BigDecimal("12.50")));
+        long before = expenseRepository.count();
+
+        CompletableFuture<IdempotencyStore.Result<ExpenseDTO>> first = CompletableFuture.supplyAsync(() -> create(alice, request));
+        CompletableFuture<IdempotencyStore.Result<ExpenseDTO>> second = CompletableFuture.supplyAsync(() -> create(alice, request));
+        IdempotencyStore.Result<ExpenseDTO> third = create(alice, request);
+
+        assertThat(expenseRepository.count()).isEqualTo(before + 1);
+        assertThat(first.join().value().getId())
+                .isEqualTo(second.join().value().getId())
+                .isEqualTo(third.value().getId());
+        assertThat(Stream.of(first.join(), second.join(), third).filter(result -> !result.replayed())).hasSize(1);
+        assertThat(third.value().getSplits()).singleElement()
+                .satisfies(split -> assertThat(split.getAmount()).isEqualByComparingTo("12.50"));
+
+        CreateExpenseRequest changed = new CreateExpenseRequest("Taxi", new BigDecimal("13.00"), group.getId(),
+                Map.of(alice.getId(), new BigDecimal("13.00")));
+        assertThatThrownBy(() -> idempotencyStore.execute("expenses:" + alice.getId(), "retry-1", changed,
+                ExpenseDTO.class, () -> expenseService.createExpense(changed, alice)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private IdempotencyStore.Result<ExpenseDTO> create(User user, CreateExpenseRequest request) {
+        return idempotencyStore.execute("expenses:" + user.getId(), "retry-1", request, ExpenseDTO.class,
+                () -> expenseService.createExpense(request, user));
+    }
+}
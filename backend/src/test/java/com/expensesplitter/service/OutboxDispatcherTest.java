@@ -0,0 +1,159 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.CreateExpenseRequest;
+import com.expensesplitter.dto.CreateGroupRequest;
+import com.expensesplitter.dto.ExpenseDTO;
+import com.expensesplitter.dto.GroupDTO;
+import com.expensesplitter.model.OutboxEvent;
+import com.expensesplitter.model.OutboxLease;
+import com.expensesplitter.model.User;
+import com.expensesplitter.repository.OutboxLeaseRepository;
+import com.expensesplitter.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class OutboxDispatcherTest {
+
+    private static final int BATCH_SIZE = 500;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        Subscriber subscriber() {
+            return new Subscriber();
+        }
+    }
+
+    static class Subscriber {
+        final List<DomainEvent> received = new CopyOnWriteArrayList<>();
+        final Set<Long> failingGroups = ConcurrentHashMap.newKeySet();
+
+        @EventListener
+        void on(DomainEvent event) {
+            if (failingGroups.contains(event.groupId())) {
+                throw new IllegalStateException("subscriber down");
+            }
+            received.add(event);
+        }
+    }
+
+    @Autowired
+    private Subscriber subscriber;
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxLeaseRepository leaseRepository;
+
+    @Test
+    void publishesCommittedChangesInGroupOrder_andRetriesAfterSubscriberFailure() {
+        User alice = newUser("Alice");
+        User bob = newUser("Bob");
+        GroupDTO trip = groupService.createGroup(new CreateGroupRequest("Trip"), alice);
+        GroupDTO flat = groupService.createGroup(new CreateGroupRequest("Flat"), alice);
+        drain();
+        subscriber.received.clear();
+
+        subscriber.failingGroups.add(trip.getId());
+        groupService.addMember(trip.getId(), bob.getId(), alice);
+        ExpenseDTO dinner = expenseService.createExpense(new CreateExpenseRequest(
+                "Dinner", new BigDecimal("60.00"), trip.getId(),
+                Map.of(alice.getId(), new BigDecimal("30.00"), bob.getId(), new BigDecimal("30.00"))), alice);
+        Long bobSplitId = dinner.getSplits().stream()
+                .filter(s -> s.getUserId().equals(bob.getId()))
+                .findFirst().orElseThrow().getId();
+        expenseService.markSplitAsPaid(bobSplitId, bob);
+        groupService.addMember(flat.getId(), bob.getId(), alice);
+
+        drain();
+        assertThat(typesFor(flat.getId())).containsExactly(OutboxEvent.Type.MEMBER_ADDED);
+        assertThat(typesFor(trip.getId())).isEmpty();
+
+        subscriber.failingGroups.clear();
+        drain();
+        assertThat(typesFor(trip.getId())).containsExactly(
+                OutboxEvent.Type.MEMBER_ADDED, OutboxEvent.Type.EXPENSES_CREATED, OutboxEvent.Type.SPLITS_PAID);
+
+        DomainEvent created = subscriber.received.stream()
+                .filter(e -> e.type() == OutboxEvent.Type.EXPENSES_CREATED)
+                .findFirst().orElseThrow();
+        assertThat(created.payload().path("expenses").get(0).path("expenseId").asLong()).isEqualTo(dinner.getId());
+
+        drain();
+        assertThat(typesFor(trip.getId())).hasSize(3);
+    }
+
+    @Test
+    void deliversNothingWhileAnotherNodeHoldsTheLease() {
+        User alice = newUser("Alice");
+        User bob = newUser("Bob");
+        GroupDTO trip = groupService.createGroup(new CreateGroupRequest("Trip"), alice);
+        groupService.addMember(trip.getId(), bob.getId(), alice);
+
+        OutboxLease lease = new OutboxLease();
+        lease.setName("outbox-dispatcher");
+        lease.setOwner("another-node");
+        lease.setExpiresAt(Instant.now().plus(Duration.ofHours(1)));
+        leaseRepository.save(lease);
+        try {
+            drain();
+            assertThat(typesFor(trip.getId())).isEmpty();
+        } finally {
+            lease.setExpiresAt(Instant.now().minusSeconds(1));
+            leaseRepository.save(lease);
+        }
+
+        drain();
+        assertThat(typesFor(trip.getId())).containsExactly(OutboxEvent.Type.MEMBER_ADDED);
+    }
+
+    // Other tests leave undispatched events behind, so read until a batch comes back short
+    private void drain() {
+        int read;
+        do {
+            read = dispatcher.dispatchPending();
+        } while (read == BATCH_SIZE);
+    }
+
+    private List<OutboxEvent.Type> typesFor(Long groupId) {
+        return subscriber.received.stream()
+                .filter(e -> e.groupId().equals(groupId))
+                .map(DomainEvent::type)
+                .toList();
+    }
+
+    private User newUser(String name) {
+        return userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@example.com")
+                .password("password123")
+                .name(name)
+                .build());
+    }
+}
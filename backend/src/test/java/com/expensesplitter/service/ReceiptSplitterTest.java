@@ -0,0 +1,80 @@
+package com.expensesplitter.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReceiptSplitterTest {
+
+    private static final long S = ReceiptSplitter.SHARED;
+
+    @Test
+    void split_assignsItems_sharesTheRest_andSpreadsTaxProRata() {
+        long[] people = {1, 2, 3};
+        // Burger 12.00 for 1, salad 8.00 for 2, nachos 9.00 shared, 2.90 tax + tip
+        long[] shares = ReceiptSplitter.split(people, new long[]{1200, 800, 900}, new long[]{1, 2, S}, 3, 290);
+
+        // Subtotals 15.00 / 11.00 / 3.00 of 29.00, scaled by 31.90 / 29.00
+        assertThat(shares).containsExactly(1650, 1210, 330);
+    }
+
+    @Test
+    void split_givesLeftoverCentsToLargestRemainders_tiesToLowerId() {
+        // 10.00 shared by three: 333.33... each, the one leftover cent goes to the lowest id
+        assertThat(ReceiptSplitter.split(new long[]{4, 7, 9}, new long[]{1000}, new long[]{S}, 1, 0))
+                .containsExactly(334, 333, 333);
+    }
+
+    @Test
+    void split_alwaysAddsUpToTheTotal_andStaysWithinOneCentOfTheExactShare() {
+        Random random = new Random(7);
+        for (int round = 0; round < 2_000; round++) {
+            int people = 1 + random.nextInt(40);
+            long[] ids = new long[people];
+            for (int p = 0; p < people; p++) ids[p] = 10L * (p + 1);
+
+            int items = 1 + random.nextInt(300);
+            long[] cents = new long[items];
+            long[] assigned = new long[items];
+            long subtotal = 0;
+            long[] assignedTotals = new long[people];
+            long shared = 0;
+            for (int i = 0; i < items; i++) {
+                cents[i] = 1 + random.nextInt(5_000);
+                subtotal += cents[i];
+                if (random.nextInt(3) == 0) {
+                    assigned[i] = S;
+                    shared += cents[i];
+                } else {
+                    int p = random.nextInt(people);
+                    assigned[i] = ids[p];
+                    assignedTotals[p] += cents[i];
+                }
+            }
+            long extra = random.nextInt(3_000);
+
+            long[] shares = ReceiptSplitter.split(ids, cents, assigned, items, extra);
+
+            long sum = 0;
+            for (int p = 0; p < people; p++) {
+                sum += shares[p];
+                BigDecimal exact = BigDecimal.valueOf(assignedTotals[p] * people + shared)
+                        .multiply(BigDecimal.valueOf(subtotal + extra))
+                        .divide(BigDecimal.valueOf(subtotal * people), 10, RoundingMode.HALF_EVEN);
+                assertThat(BigDecimal.valueOf(shares[p]).subtract(exact).abs()).isLessThan(BigDecimal.ONE);
+            }
+            assertThat(sum).isEqualTo(subtotal + extra);
+        }
+    }
+
+    @Test
+    void split_rejectsAssigneesOutsideTheParticipants() {
+        assertThatThrownBy(() -> ReceiptSplitter.split(new long[]{1, 2}, new long[]{100}, new long[]{3}, 1, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,143 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.CreateGroupRequest;
+import com.expensesplitter.dto.CreateRecurringExpenseRequest;
+import com.expensesplitter.dto.ExpenseDTO;
+import com.expensesplitter.dto.GroupDTO;
+import com.expensesplitter.dto.MemberBalanceDTO;
+import com.expensesplitter.dto.RecurringExpenseDTO;
+import com.expensesplitter.model.RecurringExpense;
+import com.expensesplitter.model.User;
+import com.expensesplitter.repository.RecurringExpenseRepository;
+import com.expensesplitter.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {"app.recurring.batchSize=2", "app.recurring.maxCatchUp=2"})
+class RecurringExpenseSchedulerTest {
+
+    @Autowired
+    private RecurringExpenseScheduler scheduler;
+
+    @Autowired
+    private RecurringExpenseService recurringExpenseService;
+
+    @Autowired
+    private RecurringExpenseRepository recurringExpenseRepository;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void dueTemplates_areGeneratedAcrossBatches_withBoundedCatchUp_andOnlyOnce() {
+        User alice = newUser("Alice");
+        User bob = newUser("Bob");
+        GroupDTO group = groupService.createGroup(new CreateGroupRequest("Flat"), alice);
+        groupService.addMember(group.getId(), bob.getId(), alice);
+
+        // Five templates with batchSize=2 take three batches; the first one is six months behind
+        RecurringExpenseDTO rent = createRent(group, alice, bob, "Rent");
+        for (int i = 0; i < 4; i++) {
+            rewind(createRent(group, alice, bob, "Internet " + i), "2026-03-01T09:00:00Z");
+        }
+        rewind(rent, "2026-01-01T09:00:00Z");
+
+        Instant now = Instant.parse("2026-03-15T00:00:00Z");
+        assertThat(scheduler.runDue(now)).isGreaterThanOrEqualTo(6);
+        assertThat(scheduler.runDue(now)).isZero();
+
+        List<ExpenseDTO> rentExpenses = expenseService.getExpensesByGroup(group.getId()).stream()
+                .filter(e -> e.getDescription().equals("Rent"))
+                .sorted(Comparator.comparing(ExpenseDTO::getCreatedAt))
+                .collect(Collectors.toList());
+        // January and February are caught up, March is skipped, the next run is April
+        assertThat(rentExpenses).extracting(ExpenseDTO::getCreatedAt).containsExactly(
+                Instant.parse("2026-01-01T09:00:00Z"), Instant.parse("2026-02-01T09:00:00Z"));
+        RecurringExpense template = recurringExpenseRepository.findById(rent.getId()).orElseThrow();
+        assertThat(template.getNextRunAt()).isEqualTo(Instant.parse("2026-04-01T09:00:00Z"));
+        assertThat(expenseService.getExpensesByGroup(group.getId())).hasSize(6);
+
+        Map<Long, BigDecimal> balances = balanceService.getBalances(group.getId()).stream()
+                .collect(Collectors.toMap(MemberBalanceDTO::getUserId, MemberBalanceDTO::getBalance));
+        assertThat(balances.get(bob.getId())).isEqualByComparingTo("-300.00");
+        assertThat(balanceService.reconcile(group.getId())).isEmpty();
+    }
+
+    @Test
+    void templateWhoseSplitUserLeft_isPausedWithTheReason() {
+        User alice = newUser("Alice");
+        User bob = newUser("Bob");
+        GroupDTO group = groupService.createGroup(new CreateGroupRequest("Club"), alice);
+        groupService.addMember(group.getId(), bob.getId(), alice);
+        RecurringExpenseDTO dues = createRent(group, alice, bob, "Dues");
+        rewind(dues, "2026-05-01T09:00:00Z");
+        groupService.removeMember(group.getId(), bob.getId(), alice);
+
+        scheduler.runDue(Instant.parse("2026-05-02T00:00:00Z"));
+
+        RecurringExpense template = recurringExpenseRepository.findById(dues.getId()).orElseThrow();
+        assertThat(template.isActive()).isFalse();
+        assertThat(template.getLastError()).contains("is not a member of this group");
+        assertThat(expenseService.getExpensesByGroup(group.getId())).isEmpty();
+    }
+
+    @Test
+    void create_rejectsBadSchedulesAndSplits() {
+        User alice = newUser("Alice");
+        GroupDTO group = groupService.createGroup(new CreateGroupRequest("Solo"), alice);
+        Map<Long, BigDecimal> splits = Map.of(alice.getId(), new BigDecimal("10.00"));
+
+        assertThatThrownBy(() -> recurringExpenseService.create(new CreateRecurringExpenseRequest(
+                "Gym", new BigDecimal("10.00"), group.getId(), splits, null, "every month", null), alice))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Invalid schedule");
+        assertThatThrownBy(() -> recurringExpenseService.create(new CreateRecurringExpenseRequest(
+                "Gym", new BigDecimal("12.00"), group.getId(), splits, null, "@monthly", null), alice))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Total splits must equal expense amount");
+
+        RecurringExpenseDTO gym = recurringExpenseService.create(new CreateRecurringExpenseRequest(
+                "Gym", new BigDecimal("10.00"), group.getId(), splits, null, "0 7 * * MON", "Europe/Berlin"), alice);
+        assertThat(gym.getNextRunAt()).isAfter(Instant.now());
+        assertThat(recurringExpenseService.getByGroup(group.getId(), alice)).hasSize(1);
+    }
+
+    private RecurringExpenseDTO createRent(GroupDTO group, User alice, User bob, String description) {
+        return recurringExpenseService.create(new CreateRecurringExpenseRequest(description, new BigDecimal("100.00"),
+                group.getId(), Map.of(alice.getId(), new BigDecimal("50.00"), bob.getId(), new BigDecimal("50.00")),
+                null, "0 9 1 * *", "UTC"), alice);
+    }
+
+    private void rewind(RecurringExpenseDTO dto, String nextRunAt) {
+        RecurringExpense template = recurringExpenseRepository.findById(dto.getId()).orElseThrow();
+        template.setNextRunAt(Instant.parse(nextRunAt));
+        recurringExpenseRepository.save(template);
+    }
+
+    private User newUser(String name) {
+        return userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@example.com")
+                .password("password123")
+                .name(name)
+                .build());
+    }
+}
@@ -0,0 +1,100 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.SettlementPlanDTO;
+import com.expensesplitter.model.OutboxEvent;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SettlementCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SettlementCache cache = new SettlementCache(2, Duration.ofMinutes(1), registry);
+
+    @Test
+    void invalidate_bumpsVersion_soOldEntriesAreNotServed() {
+        SettlementPlanDTO plan = new SettlementPlanDTO("greedy", 0, true, List.of());
+        cache.put(key(1L), plan);
+
+        assertThat(cache.get(key(1L))).isSameAs(plan);
+
+        cache.invalidate(1L);
+
+        assertThat(cache.version(1L)).isEqualTo(1);
+        assertThat(cache.get(key(1L))).isNull();
+        assertThat(count("cache.gets", "hit")).isEqualTo(1);
+        assertThat(count("cache.gets", "miss")).isEqualTo(1);
+    }
+
+    @Test
+    void put_beyondCapacity_evictsLeastRecentlyUsed() {
+        cache.put(key(1L), new SettlementPlanDTO("greedy", 0, true, List.of()));
+        cache.put(key(2L), new SettlementPlanDTO("greedy", 0, true, List.of()));
+        cache.get(key(1L));
+        cache.put(key(3L), new SettlementPlanDTO("greedy", 0, true, List.of()));
+
+        assertThat(cache.get(key(1L))).isNotNull();
+        assertThat(cache.get(key(2L))).isNull();
+        assertThat(registry.get("cache.evictions").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void groupDeleted_dropsTheGroupsVersionAndPlans() {
+        cache.invalidate(1L);
+        cache.put(key(1L), new SettlementPlanDTO("greedy", 0, true, List.of()));
+        cache.put(key(2L), new SettlementPlanDTO("greedy", 0, true, List.of()));
+
+        cache.onDomainEvent(broadcast(OutboxEvent.Type.GROUP_DELETED, 1L));
+
+        assertThat(cache.version(1L)).isZero();
+        assertThat(registry.get("cache.size").gauge().value()).isEqualTo(1);
+        assertThat(cache.get(key(2L))).isNotNull();
+    }
+
+    @Test
+    void broadcastOfAnotherNodesWrite_bumpsVersion() {
+        cache.put(key(1L), new SettlementPlanDTO("greedy", 0, true, List.of()));
+
+        cache.onDomainEvent(broadcast(OutboxEvent.Type.SPLITS_PAID, 1L));
+
+        assertThat(cache.version(1L)).isEqualTo(1);
+        assertThat(cache.get(key(1L))).isNull();
+    }
+
+    @Test
+    void plansExpireAfterTheTtl() {
+        SettlementCache shortLived = new SettlementCache(2, Duration.ZERO, registry);
+        SettlementCache.Key key = new SettlementCache.Key(1L, 0, SettlementStrategy.GREEDY, 0);
+        shortLived.put(key, new SettlementPlanDTO("greedy", 0, true, List.of()));
+
+        assertThat(shortLived.get(key)).isNull();
+    }
+
+    @Test
+    void budgets_roundDownToAFewFixedValues() {
+        assertThat(SettlementService.budgetBucket(0)).isEqualTo(10);
+        assertThat(SettlementService.budgetBucket(50)).isEqualTo(50);
+        assertThat(SettlementService.budgetBucket(73)).isEqualTo(50);
+        assertThat(SettlementService.budgetBucket(999)).isEqualTo(500);
+        assertThat(SettlementService.budgetBucket(60_000)).isEqualTo(1000);
+    }
+
+    private static DomainEventBroadcast broadcast(OutboxEvent.Type type, Long groupId) {
+        return new DomainEventBroadcast(new DomainEvent(1L, groupId, type, JsonNodeFactory.instance.objectNode(),
+                Instant.now()));
+    }
+
+    private SettlementCache.Key key(Long groupId) {
+        return new SettlementCache.Key(groupId, cache.version(groupId), SettlementStrategy.GREEDY, 0);
+    }
+
+    private double count(String name, String result) {
+        return registry.get(name).tag("result", result).functionCounter().count();
+    }
+}
@@ -0,0 +1,89 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.MemberBalanceDTO;
+import com.expensesplitter.dto.SettlementDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SettlementEngineTest {
+
+    @Test
+    void settle_matchesBigDecimalGreedy_onRandomGroups() {
+        Random random = new Random(42);
+        for (int round = 0; round < 2_000; round++) {
+            int n = 2 + random.nextInt(11);
+            List<MemberBalanceDTO> members = new ArrayList<>();
+            long sum = 0;
+            for (int i = 1; i < n; i++) {
+                // Small value range so ties are common
+                long cents = (random.nextInt(9) - 4) * 250L + (random.nextBoolean() ? 0 : random.nextInt(3));
+                sum += cents;
+                members.add(new MemberBalanceDTO((long) i, "user" + i, BigDecimal.valueOf(cents, 2)));
+            }
+            members.add(new MemberBalanceDTO((long) n, "user" + n, BigDecimal.valueOf(-sum, 2)));
+            Collections.shuffle(members, random);
+
+            assertThat(SettlementService.settle(members)).isEqualTo(legacyGreedy(members));
+        }
+    }
+
+    @Test
+    void settle_reusedEngine_producesSameTransfers() {
+        SettlementEngine engine = new SettlementEngine(3);
+        for (int run = 0; run < 2; run++) {
+            engine.clear();
+            engine.add(1, -1500);
+            engine.add(2, 1000);
+            engine.add(3, 500);
+
+            assertThat(engine.settle()).isEqualTo(2);
+            assertThat(engine.memberId(engine.transferTo(0))).isEqualTo(2);
+            assertThat(engine.transferAmount(0)).isEqualTo(1000);
+            assertThat(engine.memberId(engine.transferTo(1))).isEqualTo(3);
+            assertThat(engine.transferAmount(1)).isEqualTo(500);
+        }
+    }
+
+    // The HashMap/BigDecimal matcher SettlementService used before the primitive engine
+    private static List<SettlementDTO> legacyGreedy(List<MemberBalanceDTO> members) {
+        Map<Long, String> nameById = new HashMap<>();
+        Map<Long, BigDecimal> balance = new HashMap<>();
+        for (MemberBalanceDTO m : members) {
+            nameById.put(m.getUserId(), m.getUserName());
+            balance.put(m.getUserId(), m.getBalance());
+        }
+
+        List<Map.Entry<Long, BigDecimal>> creditors = balance.entrySet().stream()
+                .filter(e -> e.getValue().compareTo(BigDecimal.ZERO) > 0)
+                .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
+                .toList();
+        List<Map.Entry<Long, BigDecimal>> debtors = balance.entrySet().stream()
+                .filter(e -> e.getValue().compareTo(BigDecimal.ZERO) < 0)
+                .sorted(Comparator.comparing(Map.Entry::getValue))
+                .toList();
+
+        int i = 0;
+        int j = 0;
+        List<SettlementDTO> settlements = new ArrayList<>();
+        Map<Long, BigDecimal> bal = new HashMap<>(balance);
+        while (i < debtors.size() && j < creditors.size()) {
+            Long debtorId = debtors.get(i).getKey();
+            Long creditorId = creditors.get(j).getKey();
+            BigDecimal pay = bal.get(debtorId).abs().min(bal.get(creditorId)).setScale(2, RoundingMode.HALF_UP);
+            if (pay.compareTo(BigDecimal.ZERO) > 0) {
+                settlements.add(new SettlementDTO(debtorId, nameById.get(debtorId),
+                        creditorId, nameById.get(creditorId), pay));
+                bal.put(debtorId, bal.get(debtorId).add(pay));
+                bal.put(creditorId, bal.get(creditorId).subtract(pay));
+            }
+            if (bal.get(debtorId).compareTo(BigDecimal.ZERO) == 0) i++;
+            if (bal.get(creditorId).compareTo(BigDecimal.ZERO) == 0) j++;
+        }
+        return settlements;
+    }
+}
@@ -0,0 +1,88 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.MemberBalanceDTO;
+import com.expensesplitter.dto.SettlementDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SettlementOptimizerTest {
+
+    @Test
+    void optimize_splitsIntoZeroSumSubsets_whenGreedyMixesThem() {
+        List<MemberBalanceDTO> members = members(-1000, -900, 600, 500, 400, 400);
+
+        List<SettlementDTO> greedy = SettlementService.settle(members);
+        List<SettlementDTO> optimal = SettlementService.optimize(members, TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(greedy).hasSize(5);
+        assertThat(optimal).hasSize(4);
+        assertSettlesEveryone(members, optimal);
+    }
+
+    @Test
+    void optimize_neverWorseThanGreedy_andAlwaysSettlesEveryone() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            int n = 2 + random.nextInt(60);
+            long[] cents = new long[n];
+            long sum = 0;
+            for (int i = 0; i < n - 1; i++) {
+                cents[i] = (random.nextInt(21) - 10) * 100L;
+                sum += cents[i];
+            }
+            cents[n - 1] = -sum;
+            List<MemberBalanceDTO> members = members(cents);
+
+            List<SettlementDTO> optimal = SettlementService.optimize(members, TimeUnit.MILLISECONDS.toNanos(20));
+
+            assertThat(optimal.size()).isLessThanOrEqualTo(SettlementService.settle(members).size());
+            assertSettlesEveryone(members, optimal);
+        }
+    }
+
+    @Test
+    void optimize_reportsWhetherTheSearchFinishedWithinItsBudget() {
+        long[] ids = {1, 2, 3, 4, 5, 6};
+        long[] cents = {-1000, -900, 600, 500, 400, 400};
+        assertThat(SettlementOptimizer.optimize(ids, cents, ids.length, TimeUnit.SECONDS.toNanos(1)).budgetExhausted())
+                .isFalse();
+
+        Random random = new Random(11);
+        int n = 2000;
+        long[] manyIds = new long[n];
+        long[] manyCents = new long[n];
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+            manyIds[i] = i + 1;
+            manyCents[i] = i == n - 1 ? -sum : random.nextInt(2_000_001) - 1_000_000;
+            sum += manyCents[i];
+        }
+        SettlementOptimizer.Plan cut = SettlementOptimizer.optimize(manyIds, manyCents, n, 0);
+        assertThat(cut.budgetExhausted()).isTrue();
+        assertThat(cut.transferCount()).isPositive();
+    }
+
+    private static void assertSettlesEveryone(List<MemberBalanceDTO> members, List<SettlementDTO> transfers) {
+        Map<Long, BigDecimal> remaining = new HashMap<>();
+        for (MemberBalanceDTO m : members) remaining.put(m.getUserId(), m.getBalance());
+        for (SettlementDTO t : transfers) {
+            assertThat(t.getAmount()).isPositive();
+            remaining.merge(t.getFromUserId(), t.getAmount(), BigDecimal::add);
+            remaining.merge(t.getToUserId(), t.getAmount().negate(), BigDecimal::add);
+        }
+        assertThat(remaining.values()).allSatisfy(b -> assertThat(b.signum()).isZero());
+    }
+
+    private static List<MemberBalanceDTO> members(long... cents) {
+        List<MemberBalanceDTO> members = new ArrayList<>();
+        for (int i = 0; i < cents.length; i++) {
+            members.add(new MemberBalanceDTO((long) i + 1, "user" + (i + 1), BigDecimal.valueOf(cents[i], 2)));
+        }
+        return members;
+    }
+}
@@ -0,0 +1,112 @@
+package com.expensesplitter.service;
+
+import com.expensesplitter.dto.CreateExpenseRequest;
+import com.expensesplitter.dto.CreateGroupRequest;
+import com.expensesplitter.dto.GroupDTO;
+import com.expensesplitter.dto.GroupStatsDTO;
+import com.expensesplitter.dto.MemberSpendingDTO;
+import com.expensesplitter.dto.UserStatsDTO;
+import com.expensesplitter.model.SpendingRollup;
+import com.expensesplitter.model.User;
+import com.expensesplitter.repository.SpendingRollupRepository;
+import com.expensesplitter.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class SpendingRollupServiceTest {
+
+    @Autowired
+    private SpendingRollupService spendingRollupService;
+
+    @Autowired
+    private SpendingRollupRebuildJob rebuildJob;
+
+    @Autowired
+    private SpendingRollupRepository spendingRollupRepository;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void stats_followExpenseWrites_andRebuildRepairsDrift() {
+        User alice = newUser("Alice");
+        User bob = newUser("Bob");
+        GroupDTO group = groupService.createGroup(new CreateGroupRequest("Trip"), alice);
+        groupService.addMember(group.getId(), bob.getId(), alice);
+
+        expenseService.createExpense(new CreateExpenseRequest("Dinner", new BigDecimal("60.00"), group.getId(),
+                Map.of(alice.getId(), new BigDecimal("30.00"), bob.getId(), new BigDecimal("30.00"))), alice);
+        expenseService.createExpense(new CreateExpenseRequest("Taxi", new BigDecimal("20.00"), group.getId(),
+                Map.of(alice.getId(), new BigDecimal("10.00"), bob.getId(), new BigDecimal("10.00"))), bob);
+
+        assertGroupStats(group, alice, bob);
+        UserStatsDTO aliceStats = spendingRollupService.getUserStats(alice, null, null, null);
+        assertThat(aliceStats.getTotalPaid()).isEqualByComparingTo("60.00");
+        assertThat(aliceStats.getTotalShare()).isEqualByComparingTo("40.00");
+        assertThat(aliceStats.getGroups()).hasSize(1);
+
+        SpendingRollup row = spendingRollupRepository.findAll().stream()
+                .filter(r -> r.getGroupId().equals(group.getId()) && r.getUserId().equals(bob.getId()))
+                .findFirst().orElseThrow();
+        row.setPaid(new BigDecimal("999.00"));
+        spendingRollupRepository.save(row);
+
+        assertThat(rebuildJob.rebuildAll()).isZero();
+        assertGroupStats(group, alice, bob);
+    }
+
+    @Test
+    void stats_rejectNonMembersAndOversizedRanges() {
+        User alice = newUser("Alice");
+        User mallory = newUser("Mallory");
+        GroupDTO group = groupService.createGroup(new CreateGroupRequest("Flat"), alice);
+
+        assertThatThrownBy(() -> spendingRollupService.getGroupStats(group.getId(), mallory, null, null))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> spendingRollupService.getGroupStats(group.getId(), alice,
+                YearMonth.of(2000, 1), YearMonth.of(2020, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void assertGroupStats(GroupDTO group, User alice, User bob) {
+        YearMonth now = YearMonth.now(ZoneOffset.UTC);
+        GroupStatsDTO stats = spendingRollupService.getGroupStats(group.getId(), alice, now, now);
+        assertThat(stats.getTotalSpent()).isEqualByComparingTo("80.00");
+        assertThat(stats.getExpenseCount()).isEqualTo(2);
+        assertThat(stats.getMonths()).hasSize(1);
+
+        Map<Long, MemberSpendingDTO> members = stats.getMembers().stream()
+                .collect(Collectors.toMap(MemberSpendingDTO::getUserId, Function.identity()));
+        assertThat(members.get(alice.getId()).getPaid()).isEqualByComparingTo("60.00");
+        assertThat(members.get(alice.getId()).getShare()).isEqualByComparingTo("40.00");
+        assertThat(members.get(bob.getId()).getPaid()).isEqualByComparingTo("20.00");
+        assertThat(members.get(bob.getId()).getShare()).isEqualByComparingTo("40.00");
+    }
+
+    private User newUser(String name) {
+        return userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@example.com")
+                .password("password123")
+                .name(name)
+                .build());
+    }
+}
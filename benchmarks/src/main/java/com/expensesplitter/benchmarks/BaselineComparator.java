@@ -0,0 +1,90 @@
+package com.expensesplitter.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file against the checked-in baseline.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar com.expensesplitter.benchmarks.BaselineComparator
+ * baseline.json results.json [maxRegressionPercent]}. Exits with status 1 when any benchmark's
+ * score or normalized allocation rate regresses by more than the threshold (default 10%).
+ */
+public final class BaselineComparator {
+
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+
+    private BaselineComparator() {
+    }
+
+    record Result(double score, String unit, double allocBytesPerOp) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparator <baseline.json> <results.json> [maxRegressionPercent]");
+            System.exit(2);
+        }
+        Map<String, Result> baseline = read(new File(args[0]));
+        Map<String, Result> current = read(new File(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        boolean regressed = false;
+        System.out.printf("%-70s %14s %14s %8s %14s %14s %8s%n",
+                "Benchmark", "Baseline", "Current", "Delta", "Alloc base", "Alloc now", "Delta");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result base = baseline.get(entry.getKey());
+            if (base == null) {
+                System.out.printf("%-70s %14s %14.3f %8s%n", entry.getKey(), "-", now.score(), "new");
+                continue;
+            }
+            double scoreDelta = percent(base.score(), now.score());
+            double allocDelta = percent(base.allocBytesPerOp(), now.allocBytesPerOp());
+            // AverageTime: higher is worse. Allocation: higher is worse.
+            boolean worse = scoreDelta > threshold || allocDelta > threshold;
+            regressed |= worse;
+            System.out.printf("%-70s %14.3f %14.3f %7.1f%% %14.1f %14.1f %7.1f%%%s%n",
+                    entry.getKey(), base.score(), now.score(), scoreDelta,
+                    base.allocBytesPerOp(), now.allocBytesPerOp(), allocDelta, worse ? "  REGRESSION" : "");
+        }
+        System.exit(regressed ? 1 : 0);
+    }
+
+    private static double percent(double base, double now) {
+        if (base == 0) return now == 0 ? 0 : 100;
+        return (now - base) / base * 100;
+    }
+
+    static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            JsonNode primary = run.path("primaryMetric");
+            JsonNode secondary = run.path("secondaryMetrics");
+            JsonNode alloc = secondary.has(ALLOC_METRIC) ? secondary.get(ALLOC_METRIC) : secondary.path("·" + ALLOC_METRIC);
+            results.put(key(run), new Result(
+                    primary.path("score").asDouble(),
+                    primary.path("scoreUnit").asText(),
+                    alloc.path("score").asDouble(Double.NaN)));
+        }
+        return results;
+    }
+
+    private static String key(JsonNode run) {
+        String name = run.path("benchmark").asText().replace("com.expensesplitter.", "");
+        Map<String, String> params = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = run.path("params").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            params.put(field.getKey(), field.getValue().asText());
+        }
+        return params.isEmpty() ? name : name + params;
+    }
+}
@@ -0,0 +1,82 @@
+package com.expensesplitter.benchmarks;
+
+import com.expensesplitter.dto.ExpenseDTO;
+import com.expensesplitter.dto.GroupDTO;
+import com.expensesplitter.model.Expense;
+import com.expensesplitter.model.ExpenseSplit;
+import com.expensesplitter.model.Group;
+import com.expensesplitter.model.User;
+import com.expensesplitter.service.DtoMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping for expenses (per split) and groups (per member), on detached entities.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+public class DtoMappingBenchmark {
+
+    @Param({"2", "20", "200"})
+    private int size;
+
+    private Expense expense;
+    private Group group;
+
+    @Setup
+    public void setUp() {
+        List<User> users = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            users.add(User.builder().id(i).email("user" + i + "@example.com").name("User " + i).build());
+        }
+
+        group = new Group();
+        group.setId(1L);
+        group.setName("Benchmark");
+        group.setCreatedBy(users.get(0));
+        group.setCreatedAt(LocalDateTime.now());
+        group.setUpdatedAt(LocalDateTime.now());
+        Set<User> members = new HashSet<>(users);
+        group.setMembers(members);
+
+        expense = new Expense();
+        expense.setId(1L);
+        expense.setDescription("Dinner");
+        expense.setAmount(BigDecimal.valueOf(size * 1000L, 2));
+        expense.setGroup(group);
+        expense.setPaidBy(users.get(0));
+        expense.setCreatedAt(Instant.now());
+        List<ExpenseSplit> splits = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ExpenseSplit split = new ExpenseSplit();
+            split.setId((long) i + 1);
+            split.setExpense(expense);
+            split.setUser(users.get(i));
+            split.setAmount(BigDecimal.valueOf(1000, 2));
+            splits.add(split);
+        }
+        expense.setSplits(splits);
+    }
+
+    @Benchmark
+    public ExpenseDTO expenseToDto() {
+        return DtoMapper.toDTO(expense);
+    }
+
+    @Benchmark
+    public GroupDTO groupToDto() {
+        return DtoMapper.toDTO(group);
+    }
+}
@@ -0,0 +1,94 @@
+package com.expensesplitter.benchmarks;
+
+import com.expensesplitter.model.User;
+import com.expensesplitter.service.GroupMembershipIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Membership checks for one expense with ten split users (one of them not a member): the loaded
+ * {@code Group.members} set, whose {@code User.hashCode()} puts every member in one bucket, against
+ * {@link GroupMembershipIndex#isMember} once the group is cached (loaded from an in-memory H2 database).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+public class GroupMembershipBenchmark {
+
+    private static final int SPLIT_USERS = 10;
+
+    @Param({"50", "5000"})
+    private int members;
+
+    private static final Long GROUP_ID = 1L;
+
+    private Set<User> memberSet;
+    private long[] memberIds;
+    private User[] splitUsers;
+    private DriverManagerDataSource dataSource;
+    private GroupMembershipIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(members);
+        memberSet = new HashSet<>();
+        memberIds = new long[members];
+        for (int i = 0; i < members; i++) {
+            long id = 1 + i * 3L; // sparse ids, like members of a group among all users
+            memberSet.add(User.builder().id(id).email("user" + id + "@example.com").name("User " + id).build());
+            memberIds[i] = id;
+        }
+        splitUsers = new User[SPLIT_USERS];
+        for (int i = 0; i < SPLIT_USERS - 1; i++) {
+            splitUsers[i] = User.builder().id(memberIds[random.nextInt(members)]).build();
+        }
+        splitUsers[SPLIT_USERS - 1] = User.builder().id(2L).build(); // not a member: a full miss
+
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:membership_" + members + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table group_members (group_id bigint, user_id bigint)");
+        List<Object[]> rows = new ArrayList<>(members);
+        for (long id : memberIds) {
+            rows.add(new Object[]{GROUP_ID, id});
+        }
+        jdbcTemplate.batchUpdate("insert into group_members (group_id, user_id) values (?, ?)", rows);
+        index = new GroupMembershipIndex(jdbcTemplate, new SimpleMeterRegistry(), 16, Duration.ofHours(1));
+        index.isMember(GROUP_ID, memberIds[0]); // load the group, so iterations measure cache hits
+    }
+
+    @TearDown
+    public void tearDown() {
+        new JdbcTemplate(dataSource).execute("shutdown");
+    }
+
+    @Benchmark
+    public int memberSetContains() {
+        int found = 0;
+        for (User user : splitUsers) {
+            if (memberSet.contains(user)) found++;
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int indexIsMember() {
+        int found = 0;
+        for (User user : splitUsers) {
+            if (index.isMember(GROUP_ID, user.getId())) found++;
+        }
+        return found;
+    }
+}
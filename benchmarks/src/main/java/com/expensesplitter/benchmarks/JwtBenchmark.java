@@ -0,0 +1,60 @@
+package com.expensesplitter.benchmarks;
+
+import com.expensesplitter.security.JwtTokenProvider;
+import com.expensesplitter.security.UserPrincipal;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-request work JwtAuthenticationFilter does before loading the user.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+public class JwtBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        set("jwtSecret", "MySecretKeyForJWTTokenGenerationThatShouldBeAtLeast256BitsLongForSecurity");
+        set("jwtExpirationMs", 86_400_000);
+
+        UserPrincipal principal = new UserPrincipal(42L, "bench@example.com", "secret", "Bench");
+        token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Long getUserIdFromToken() {
+        return tokenProvider.getUserIdFromToken(token);
+    }
+
+    @Benchmark
+    public void filterPath(Blackhole blackhole) {
+        if (tokenProvider.validateToken(token)) {
+            blackhole.consume(tokenProvider.getUserIdFromToken(token));
+        }
+    }
+
+    private void set(String name, Object value) {
+        Field field = ReflectionUtils.findField(JwtTokenProvider.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, tokenProvider, value);
+    }
+}
@@ -0,0 +1,49 @@
+package com.expensesplitter.benchmarks;
+
+import com.expensesplitter.service.ReceiptSplitter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Itemized receipt allocation for receipts of growing length and party size; a third of the items are shared.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+public class ReceiptSplitterBenchmark {
+
+    @Param({"50", "500"})
+    private int items;
+
+    @Param({"10", "50"})
+    private int people;
+
+    private long[] participants;
+    private long[] itemCents;
+    private long[] assignedTo;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(items * 31L + people);
+        participants = new long[people];
+        for (int p = 0; p < people; p++) {
+            participants[p] = p + 1;
+        }
+        itemCents = new long[items];
+        assignedTo = new long[items];
+        for (int i = 0; i < items; i++) {
+            itemCents[i] = 100 + random.nextInt(5_000);
+            assignedTo[i] = random.nextInt(3) == 0 ? ReceiptSplitter.SHARED : participants[random.nextInt(people)];
+        }
+    }
+
+    @Benchmark
+    public long[] split() {
+        return ReceiptSplitter.split(participants, itemCents, assignedTo, items, 1_234);
+    }
+}
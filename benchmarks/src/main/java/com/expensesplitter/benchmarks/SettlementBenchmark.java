@@ -0,0 +1,70 @@
+package com.expensesplitter.benchmarks;
+
+import com.expensesplitter.dto.MemberBalanceDTO;
+import com.expensesplitter.dto.SettlementDTO;
+import com.expensesplitter.service.SettlementEngine;
+import com.expensesplitter.service.SettlementService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settlement over synthetic groups: the full DTO path, the reusable primitive engine on its own,
+ * and the time-budgeted optimizer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+public class SettlementBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int members;
+
+    private List<MemberBalanceDTO> balances;
+    private long[] ids;
+    private long[] cents;
+    private SettlementEngine engine;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(members);
+        balances = new ArrayList<>(members);
+        ids = new long[members];
+        cents = new long[members];
+        long sum = 0;
+        for (int i = 0; i < members; i++) {
+            long balance = i == members - 1 ? -sum : (random.nextInt(40_001) - 20_000);
+            sum += balance;
+            ids[i] = i + 1;
+            cents[i] = balance;
+            balances.add(new MemberBalanceDTO(ids[i], "member" + ids[i], BigDecimal.valueOf(balance, 2)));
+        }
+        engine = new SettlementEngine(members);
+    }
+
+    @Benchmark
+    public List<SettlementDTO> settle() {
+        return SettlementService.settle(balances);
+    }
+
+    @Benchmark
+    public int engineReused() {
+        engine.clear();
+        for (int i = 0; i < members; i++) {
+            engine.add(ids[i], cents[i]);
+        }
+        return engine.settle();
+    }
+
+    @Benchmark
+    public List<SettlementDTO> optimize() {
+        return SettlementService.optimize(balances, TimeUnit.MILLISECONDS.toNanos(50));
+    }
+}